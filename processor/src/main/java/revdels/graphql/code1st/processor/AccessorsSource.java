@@ -0,0 +1,195 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+/**
+ * Source of the GeneratedAccessors implementation for one class. Members that
+ * cannot be told apart by name and parameter count are left out, so the
+ * runtime falls back to method handles for them.
+ */
+final class AccessorsSource {
+
+	private static final String SUFFIX = "_GraphQLAccessors";
+
+	private final ProcessingEnvironment processingEnv;
+	private final TypeElement type;
+	private final String packageName;
+	private final String simpleName;
+	private final String typeName;
+
+	AccessorsSource(ProcessingEnvironment processingEnv, TypeElement type) {
+		this.processingEnv = processingEnv;
+		this.type = type;
+		this.packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String localName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+		this.simpleName = localName.replace('$', '_') + SUFFIX;
+		this.typeName = erasure(type.asType());
+	}
+
+	String getQualifiedName() {
+		return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+	}
+
+	String build() {
+		List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+		methods.removeIf(method -> !method.getModifiers().contains(Modifier.PUBLIC) || !throwsOnlyExceptions(method));
+		List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+		constructors.removeIf(constructor -> !constructor.getModifiers().contains(Modifier.PUBLIC)
+				|| !throwsOnlyExceptions(constructor) || !isInstantiable());
+
+		StringBuilder out = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			out.append("package ").append(packageName).append(";\n\n");
+		}
+		out.append("@javax.annotation.processing.Generated(\"").append(GraphQLAccessorProcessor.class.getName()).append("\")\n");
+		out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		out.append("public final class ").append(simpleName)
+				.append(" implements revdels.graphql.code1st.fetchers.GeneratedAccessors {\n\n");
+
+		out.append("\t@Override\n");
+		out.append("\tpublic revdels.graphql.code1st.fetchers.MethodInvoker invoker(Object target, String method, int parameterCount) {\n");
+		out.append("\t\tswitch (method + \"/\" + parameterCount) {\n");
+		unique(methods, method -> true, method -> method.getSimpleName() + "/" + method.getParameters().size())
+				.forEach((key, method) -> out.append("\t\t\tcase \"").append(key).append("\":\n\t\t\t\treturn (source, args) -> ")
+						.append(invocation(method)).append(";\n"));
+		out.append("\t\t\tdefault:\n\t\t\t\treturn null;\n\t\t}\n\t}\n\n");
+
+		out.append("\t@Override\n");
+		out.append("\tpublic revdels.graphql.code1st.fetchers.PropertyGetter getter(String method) {\n");
+		out.append("\t\tswitch (method) {\n");
+		unique(methods, method -> isInstance(method) && method.getParameters().isEmpty()
+				&& method.getReturnType().getKind() != TypeKind.VOID, method -> method.getSimpleName().toString())
+				.forEach((key, method) -> out.append("\t\t\tcase \"").append(key).append("\":\n\t\t\t\treturn source -> ((")
+						.append(typeName).append(") source).").append(key).append("();\n"));
+		out.append("\t\t\tdefault:\n\t\t\t\treturn null;\n\t\t}\n\t}\n\n");
+
+		out.append("\t@Override\n");
+		out.append("\tpublic revdels.graphql.code1st.fetchers.PropertySetter setter(String method) {\n");
+		out.append("\t\tswitch (method) {\n");
+		unique(methods, method -> isInstance(method) && method.getParameters().size() == 1, method -> method.getSimpleName().toString())
+				.forEach((key, method) -> out.append("\t\t\tcase \"").append(key).append("\":\n\t\t\t\treturn (target, value) -> ((")
+						.append(typeName).append(") target).").append(key).append("((")
+						.append(erasure(method.getParameters().get(0).asType())).append(") value);\n"));
+		out.append("\t\t\tdefault:\n\t\t\t\treturn null;\n\t\t}\n\t}\n\n");
+
+		out.append("\t@Override\n");
+		out.append("\tpublic revdels.graphql.code1st.fetchers.ConstructorInvoker constructor(int parameterCount) {\n");
+		out.append("\t\tswitch (parameterCount) {\n");
+		unique(constructors, constructor -> true, constructor -> String.valueOf(constructor.getParameters().size()))
+				.forEach((key, constructor) -> out.append("\t\t\tcase ").append(key).append(":\n\t\t\t\treturn args -> new ")
+						.append(typeName).append("(").append(arguments(constructor, "args")).append(");\n"));
+		out.append("\t\t\tdefault:\n\t\t\t\treturn null;\n\t\t}\n\t}\n\n");
+
+		out.append("\t@Override\n");
+		out.append("\tpublic revdels.graphql.code1st.fetchers.ObjectInstantiator instantiator() {\n");
+		boolean noArgConstructor = constructors.stream().anyMatch(constructor -> constructor.getParameters().isEmpty());
+		out.append(noArgConstructor ? "\t\treturn () -> new " + typeName + "();\n" : "\t\treturn null;\n");
+		out.append("\t}\n\n");
+
+		out.append("}\n");
+		return out.toString();
+	}
+
+	/**
+	 * Selects the executables by key, leaving out keys shared by several.
+	 */
+	private Map<String, ExecutableElement> unique(List<ExecutableElement> executables,
+			Predicate<ExecutableElement> filter, Function<ExecutableElement, String> key) {
+		Map<String, List<ExecutableElement>> byKey = new LinkedHashMap<>();
+		executables.stream()
+				.filter(filter)
+				.forEach(executable -> byKey.computeIfAbsent(key.apply(executable), k -> new ArrayList<>()).add(executable));
+		Map<String, ExecutableElement> result = new LinkedHashMap<>();
+		byKey.forEach((name, candidates) -> {
+			if (candidates.size() == 1) {
+				result.put(name, candidates.get(0));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Instance methods are called on the bound controller or, for fields, on
+	 * the source object.
+	 */
+	private String invocation(ExecutableElement method) {
+		String receiver = isInstance(method)
+				? "((" + typeName + ") (target != null ? target : source))"
+				: typeName;
+		String call = receiver + "." + method.getSimpleName() + "(" + arguments(method, "args") + ")";
+		if (method.getReturnType().getKind() == TypeKind.VOID) {
+			return "{ " + call + "; return null; }";
+		}
+		return call;
+	}
+
+	private String arguments(ExecutableElement executable, String array) {
+		StringBuilder arguments = new StringBuilder();
+		for (int i = 0; i < executable.getParameters().size(); i++) {
+			if (i > 0) {
+				arguments.append(", ");
+			}
+			arguments.append("(").append(erasure(executable.getParameters().get(i).asType())).append(") ")
+					.append(array).append("[").append(i).append("]");
+		}
+		return arguments.toString();
+	}
+
+	private boolean isInstance(ExecutableElement method) {
+		return !method.getModifiers().contains(Modifier.STATIC);
+	}
+
+	private boolean isInstantiable() {
+		return type.getKind() != ElementKind.ENUM
+				&& !type.getModifiers().contains(Modifier.ABSTRACT)
+				&& (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC));
+	}
+
+	/**
+	 * Generated lambdas may only throw what the accessor interfaces declare.
+	 */
+	private boolean throwsOnlyExceptions(ExecutableElement executable) {
+		Types types = processingEnv.getTypeUtils();
+		TypeMirror exception = processingEnv.getElementUtils().getTypeElement("java.lang.Exception").asType();
+		TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+		return executable.getThrownTypes().stream()
+				.allMatch(thrown -> types.isAssignable(thrown, exception) || types.isAssignable(thrown, error));
+	}
+
+	private String erasure(TypeMirror mirror) {
+		return processingEnv.getTypeUtils().erasure(mirror).toString();
+	}
+
+}
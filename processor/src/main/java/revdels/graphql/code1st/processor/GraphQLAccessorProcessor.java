@@ -0,0 +1,192 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates direct-call accessors for controllers and the DTOs reachable from
+ * their signatures, so the runtime does not need reflection or method handles
+ * to invoke them, and the schema of each controller, so the runtime does not
+ * need to introspect it. Only classes compiled in the same run are processed.
+ */
+@SupportedAnnotationTypes({
+	GraphQLAccessorProcessor.ANNOTATIONS + "GraphQLQuery",
+	GraphQLAccessorProcessor.ANNOTATIONS + "GraphQLMutation",
+	GraphQLAccessorProcessor.ANNOTATIONS + "GraphQLSubscription",
+	GraphQLAccessorProcessor.ANNOTATIONS + "GraphQLType",
+	GraphQLAccessorProcessor.ANNOTATIONS + "GraphQLInput"
+})
+public class GraphQLAccessorProcessor extends AbstractProcessor {
+
+	static final String ANNOTATIONS = "revdels.graphql.code1st.annotations.";
+
+	private final Set<String> written = new LinkedHashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> compiled = new LinkedHashSet<>();
+		for (Element root : roundEnv.getRootElements()) {
+			collectTypes(root, compiled);
+		}
+		Set<TypeElement> reachable = new LinkedHashSet<>();
+		Set<TypeElement> controllers = new LinkedHashSet<>();
+		for (TypeElement annotation : annotations) {
+			boolean rootAnnotation = !annotation.getSimpleName().contentEquals("GraphQLType")
+					&& !annotation.getSimpleName().contentEquals("GraphQLInput");
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				Element type = element.getKind() == ElementKind.METHOD || element.getKind() == ElementKind.CONSTRUCTOR
+						? element.getEnclosingElement()
+						: element;
+				if (type instanceof TypeElement) {
+					reach((TypeElement) type, compiled, reachable);
+					if (rootAnnotation && compiled.contains(type)) {
+						controllers.add((TypeElement) type);
+					}
+				}
+			}
+		}
+		for (TypeElement type : reachable) {
+			write(type);
+		}
+		for (TypeElement controller : controllers) {
+			writeSchema(controller, compiled);
+		}
+		return false;
+	}
+
+	private void collectTypes(Element element, Set<TypeElement> types) {
+		if (element instanceof TypeElement) {
+			types.add((TypeElement) element);
+			for (Element enclosed : element.getEnclosedElements()) {
+				collectTypes(enclosed, types);
+			}
+		}
+	}
+
+	/**
+	 * Adds the type and, through the signatures of its public methods and
+	 * constructors, every class it exposes that is compiled in this round.
+	 */
+	private void reach(TypeElement type, Set<TypeElement> compiled, Set<TypeElement> reachable) {
+		if (!compiled.contains(type) || !isAccessible(type) || type.getKind() == ElementKind.ENUM
+				|| type.getKind() == ElementKind.INTERFACE || type.getKind() == ElementKind.ANNOTATION_TYPE
+				|| !reachable.add(type)) {
+			return;
+		}
+		for (ExecutableElement executable : publicExecutables(type)) {
+			reachType(executable.getReturnType(), compiled, reachable);
+			executable.getParameters().forEach(parameter -> reachType(parameter.asType(), compiled, reachable));
+		}
+	}
+
+	private void reachType(TypeMirror type, Set<TypeElement> compiled, Set<TypeElement> reachable) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			reachType(((ArrayType) type).getComponentType(), compiled, reachable);
+		}
+		if (type.getKind() != TypeKind.DECLARED) {
+			return;
+		}
+		DeclaredType declared = (DeclaredType) type;
+		declared.getTypeArguments().forEach(argument -> reachType(argument, compiled, reachable));
+		reach((TypeElement) declared.asElement(), compiled, reachable);
+	}
+
+	private boolean isAccessible(TypeElement type) {
+		Element element = type;
+		while (element instanceof TypeElement) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			element = element.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private List<ExecutableElement> publicExecutables(TypeElement type) {
+		List<ExecutableElement> executables = ElementFilter.methodsIn(type.getEnclosedElements());
+		executables.addAll(ElementFilter.constructorsIn(type.getEnclosedElements()));
+		executables.removeIf(executable -> !executable.getModifiers().contains(Modifier.PUBLIC));
+		return executables;
+	}
+
+	private void write(TypeElement type) {
+		AccessorsSource source = new AccessorsSource(processingEnv, type);
+		if (!written.add(source.getQualifiedName())) {
+			return;
+		}
+		try (Writer writer = processingEnv.getFiler().createSourceFile(source.getQualifiedName(), type).openWriter()) {
+			writer.write(source.build());
+		}
+		catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Cannot write GraphQL accessors: " + e.getMessage(), type);
+		}
+	}
+
+	/**
+	 * Writes the schema of a controller, unless it uses something only the
+	 * runtime maps; the runtime then introspects the controller.
+	 */
+	private void writeSchema(TypeElement controller, Set<TypeElement> compiled) {
+		SchemaSource source = new SchemaSource(processingEnv, controller, compiled);
+		if (!written.add(source.getQualifiedName())) {
+			return;
+		}
+		String code;
+		try {
+			code = source.build();
+		}
+		catch (SchemaSource.UnsupportedException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+					"GraphQL schema left to the runtime: " + e.getMessage(), controller);
+			return;
+		}
+		try (Writer writer = processingEnv.getFiler().createSourceFile(source.getQualifiedName(), controller).openWriter()) {
+			writer.write(code);
+		}
+		catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Cannot write GraphQL schema: " + e.getMessage(), controller);
+		}
+	}
+
+}
@@ -0,0 +1,740 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.processor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Source of the GeneratedSchema implementation for one controller: the SDL
+ * of its root fields and of the types they reach, and the methods bound to
+ * their fields. Follows the mapping rules of the runtime generator; anything
+ * the runtime rejects, or the processor cannot tell it maps the same way,
+ * makes the controller unsupported, so the runtime introspects it instead.
+ */
+final class SchemaSource {
+
+	private static final String SUFFIX = "_GraphQLSchema";
+	private static final String API = "revdels.graphql.code1st.api.";
+	private static final Pattern GETTER = Pattern.compile("^((get)|(is))(?<name>[A-Z].*)$");
+	private static final Pattern SETTER = Pattern.compile("^set(?<name>[A-Z].*)$");
+	private static final String[] ROOT_TYPES = { "Query", "Mutation", "Subscription" };
+	private static final int ROWS_PER_METHOD = 500;
+
+	/**
+	 * The controller uses a type or signature the processor leaves to the
+	 * runtime.
+	 */
+	static final class UnsupportedException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		UnsupportedException(String message) {
+			super(message);
+		}
+	}
+
+	private enum FieldKind { GETTER, SETTER, OTHER }
+
+	/**
+	 * Name and kind of a method as a field, like the runtime's FieldInfo.
+	 */
+	private final class FieldMethod {
+		private final ExecutableElement method;
+		private final AnnotationMirror fieldAnnotation;
+		private final boolean batch;
+		private String name;
+		private FieldKind kind = FieldKind.OTHER;
+
+		FieldMethod(ExecutableElement method) {
+			this.method = method;
+			this.fieldAnnotation = annotation(method, "GraphQLField");
+			this.batch = annotation(method, "GraphQLBatch") != null;
+			String methodName = method.getSimpleName().toString();
+			Matcher getter = GETTER.matcher(methodName);
+			Matcher setter = SETTER.matcher(methodName);
+			if (getter.matches()) {
+				name = decapitalize(getter.group("name"));
+				if (method.getParameters().isEmpty()) {
+					kind = FieldKind.GETTER;
+				}
+			}
+			else if (setter.matches()) {
+				name = decapitalize(setter.group("name"));
+				if (method.getParameters().size() == 1) {
+					kind = FieldKind.SETTER;
+				}
+			}
+			else {
+				name = methodName;
+			}
+			String overrideName = value(fieldAnnotation, "name");
+			if (!overrideName.isEmpty()) {
+				name = overrideName;
+				kind = FieldKind.OTHER;
+			}
+		}
+
+		String getDescription() {
+			String description = value(fieldAnnotation, "description");
+			return description.isEmpty() ? name : description;
+		}
+	}
+
+	private final ProcessingEnvironment processingEnv;
+	private final Elements elements;
+	private final Types types;
+	private final TypeElement controller;
+	private final Set<TypeElement> compiled;
+	private final String packageName;
+	private final String simpleName;
+	private final Map<String, String[]> typeDefinitions = new LinkedHashMap<>();
+	private final List<String[]> rootFields = new ArrayList<>();
+	private final List<String[]> bindings = new ArrayList<>();
+
+	SchemaSource(ProcessingEnvironment processingEnv, TypeElement controller, Set<TypeElement> compiled) {
+		this.processingEnv = processingEnv;
+		this.elements = processingEnv.getElementUtils();
+		this.types = processingEnv.getTypeUtils();
+		this.controller = controller;
+		this.compiled = compiled;
+		this.packageName = elements.getPackageOf(controller).getQualifiedName().toString();
+		String binaryName = elements.getBinaryName(controller).toString();
+		String localName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+		this.simpleName = localName.replace('$', '_') + SUFFIX;
+	}
+
+	String getQualifiedName() {
+		return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+	}
+
+	String build() throws UnsupportedException {
+		if (controller.getKind() != ElementKind.CLASS || controller.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new UnsupportedException("not a concrete class");
+		}
+		Set<String> fieldNames = new HashSet<>();
+		for (ExecutableElement method : methods(controller)) {
+			for (String rootType : ROOT_TYPES) {
+				AnnotationMirror annotation = annotation(method, "GraphQL" + rootType);
+				if (annotation != null) {
+					String[] rootField = rootField(rootType, method, annotation);
+					if (!fieldNames.add(rootType + "." + rootField[1])) {
+						throw new UnsupportedException("duplicate field " + rootType + "." + rootField[1]);
+					}
+					rootFields.add(rootField);
+				}
+			}
+		}
+
+		StringBuilder out = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			out.append("package ").append(packageName).append(";\n\n");
+		}
+		out.append("@javax.annotation.processing.Generated(\"").append(GraphQLAccessorProcessor.class.getName()).append("\")\n");
+		out.append("public final class ").append(simpleName)
+				.append(" implements revdels.graphql.code1st.schemagen.GeneratedSchema {\n\n");
+		rows(out, "types", new ArrayList<>(typeDefinitions.values()));
+		rows(out, "rootFields", rootFields);
+		rows(out, "bindings", bindings);
+		out.append("}\n");
+		return out.toString();
+	}
+
+	/**
+	 * Writes a method returning the rows. Large schemas are split over
+	 * several methods, as the bytecode of one method is limited to 64 KB.
+	 */
+	private void rows(StringBuilder out, String method, List<String[]> rows) {
+		int chunks = (rows.size() + ROWS_PER_METHOD - 1) / ROWS_PER_METHOD;
+		out.append("\t@Override\n");
+		out.append("\tpublic String[][] ").append(method).append("() {\n");
+		if (chunks <= 1) {
+			rowArray(out, rows);
+			out.append("\t}\n\n");
+			return;
+		}
+		out.append("\t\treturn java.util.stream.Stream.of(");
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			out.append(chunk > 0 ? ", " : "").append(method).append(chunk).append("()");
+		}
+		out.append(")\n\t\t\t\t.flatMap(java.util.Arrays::stream)\n\t\t\t\t.toArray(String[][]::new);\n\t}\n\n");
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			out.append("\tprivate static String[][] ").append(method).append(chunk).append("() {\n");
+			rowArray(out, rows.subList(chunk * ROWS_PER_METHOD, Math.min(rows.size(), (chunk + 1) * ROWS_PER_METHOD)));
+			out.append("\t}\n\n");
+		}
+	}
+
+	private void rowArray(StringBuilder out, List<String[]> rows) {
+		out.append("\t\treturn new String[][] {\n");
+		for (String[] row : rows) {
+			out.append("\t\t\t{ ");
+			for (int i = 0; i < row.length; i++) {
+				out.append(i > 0 ? ", " : "").append(javaString(row[i]));
+			}
+			out.append(" },\n");
+		}
+		out.append("\t\t};\n");
+	}
+
+	private String[] rootField(String rootType, ExecutableElement method, AnnotationMirror annotation) throws UnsupportedException {
+		String name = value(annotation, "name");
+		if (name.isEmpty()) {
+			name = method.getSimpleName().toString();
+		}
+		String type = rootType.equals("Subscription")
+				? subscriptionType(method.getReturnType())
+				: outputType(method.getReturnType());
+		String description = value(annotation, "description");
+		if (description.isEmpty()) {
+			description = String.format("%s: enter %s value", name, type);
+		}
+		bindings.add(binding(rootType.toUpperCase(Locale.ROOT), rootType, name, method));
+		return new String[] { rootType, name, description(description) + name + arguments(method, 0) + ": " + type };
+	}
+
+	/**
+	 * Subscriptions publish values of their field type through a Reactive
+	 * Streams or Flow publisher.
+	 */
+	private String subscriptionType(TypeMirror type) throws UnsupportedException {
+		if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).getTypeArguments().isEmpty()
+				|| !(isSubtype(type, "org.reactivestreams.Publisher") || isSubtype(type, "java.util.concurrent.Flow.Publisher"))) {
+			throw new UnsupportedException("subscription type " + type);
+		}
+		return outputType(((DeclaredType) type).getTypeArguments().get(0));
+	}
+
+	private String outputType(TypeMirror type) throws UnsupportedException {
+		if (type.getKind() == TypeKind.DECLARED) {
+			DeclaredType declared = (DeclaredType) type;
+			TypeElement element = (TypeElement) declared.asElement();
+			List<? extends TypeMirror> arguments = declared.getTypeArguments();
+			if (isSubtype(type, "java.util.concurrent.CompletionStage")) {
+				return outputType(firstArgument(declared));
+			}
+			if (is(element, API + "Page")) {
+				return connectionType(firstArgument(declared));
+			}
+			if (!arguments.isEmpty()) {
+				if (is(element, "java.util.List") || is(element, "java.util.stream.Stream")
+						|| is(element, "java.lang.Iterable") || is(element, "java.util.Iterator")) {
+					return "[" + outputType(arguments.get(0)) + "]";
+				}
+				throw new UnsupportedException("output type " + type);
+			}
+			if (element.getKind() == ElementKind.ENUM) {
+				return enumType(element);
+			}
+		}
+		String scalar = scalarType(type);
+		if (scalar != null) {
+			return scalar;
+		}
+		if (type.getKind() == TypeKind.DECLARED) {
+			return objectType((TypeElement) ((DeclaredType) type).asElement());
+		}
+		throw new UnsupportedException("output type " + type);
+	}
+
+	private String inputType(TypeMirror type) throws UnsupportedException {
+		if (type.getKind() == TypeKind.DECLARED) {
+			DeclaredType declared = (DeclaredType) type;
+			TypeElement element = (TypeElement) declared.asElement();
+			if (!declared.getTypeArguments().isEmpty()) {
+				if (is(element, "java.util.List")) {
+					return "[" + inputType(declared.getTypeArguments().get(0)) + "]";
+				}
+				throw new UnsupportedException("input type " + type);
+			}
+			if (element.getKind() == ElementKind.ENUM) {
+				return enumType(element);
+			}
+		}
+		String scalar = scalarType(type);
+		if (scalar != null) {
+			return scalar;
+		}
+		if (type.getKind() == TypeKind.DECLARED) {
+			return inputObjectType((TypeElement) ((DeclaredType) type).asElement());
+		}
+		throw new UnsupportedException("input type " + type);
+	}
+
+	private TypeMirror firstArgument(DeclaredType type) throws UnsupportedException {
+		if (type.getTypeArguments().isEmpty()) {
+			throw new UnsupportedException(type + " must have parameter");
+		}
+		return type.getTypeArguments().get(0);
+	}
+
+	private String scalarType(TypeMirror type) {
+		switch (type.getKind()) {
+			case INT:
+				return "Int";
+			case LONG:
+				return scalar("Long");
+			case BOOLEAN:
+				return "Boolean";
+			case DOUBLE:
+			case FLOAT:
+				return "Float";
+			case DECLARED:
+				break;
+			default:
+				return null;
+		}
+		switch (((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()) {
+			case "java.lang.Integer":
+				return "Int";
+			case "java.lang.Long":
+				return scalar("Long");
+			case "java.lang.String":
+				return "String";
+			case "java.lang.Boolean":
+				return "Boolean";
+			case "java.lang.Double":
+			case "java.lang.Float":
+				return "Float";
+			case "java.time.Instant":
+			case "java.util.Date":
+				return scalar("Instant");
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Scalars that are not built into graphql-java are declared in the SDL;
+	 * the runtime wires their implementation.
+	 */
+	private String scalar(String name) {
+		typeDefinitions.putIfAbsent(name, new String[] { "scalar", name, "", "scalar " + name });
+		return name;
+	}
+
+	private String enumType(TypeElement element) throws UnsupportedException {
+		AnnotationMirror enumAnnotation = annotation(element, "GraphQLEnum");
+		String name = value(enumAnnotation, "name");
+		if (name.isEmpty()) {
+			name = element.getSimpleName().toString();
+		}
+		if (isDefined("enum", name, element)) {
+			return name;
+		}
+		String description = value(enumAnnotation, "description");
+		StringBuilder definition = new StringBuilder(description(description.isEmpty() ? name : description))
+				.append("enum ").append(name).append(" {");
+		boolean empty = true;
+		for (VariableElement constant : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+			if (constant.getKind() == ElementKind.ENUM_CONSTANT) {
+				String label = value(annotation(constant, "GraphQLEnumValue"), "label");
+				definition.append("\n  ").append(label.isEmpty() ? constant.getSimpleName() : label);
+				empty = false;
+			}
+		}
+		if (empty) {
+			throw new UnsupportedException("enum without values " + element);
+		}
+		define(name, definition.append("\n}").toString());
+		return name;
+	}
+
+	private String objectType(TypeElement element) throws UnsupportedException {
+		checkIntrospectable(element);
+		String name = typeName(element, "");
+		if (isDefined("type", name, element)) {
+			return name;
+		}
+		List<String> fields = new ArrayList<>();
+		Set<String> fieldNames = new HashSet<>();
+		for (ExecutableElement method : methods(element)) {
+			FieldMethod field = new FieldMethod(method);
+			if (field.kind == FieldKind.SETTER) {
+				continue;
+			}
+			if (!fieldNames.add(field.name)) {
+				throw new UnsupportedException("duplicate field " + name + "." + field.name);
+			}
+			String kind;
+			TypeMirror dataType;
+			if (field.batch) {
+				kind = "BATCH";
+				dataType = batchDataType(method);
+			}
+			else {
+				kind = field.kind == FieldKind.GETTER ? "GETTER" : "FIELD";
+				dataType = method.getReturnType();
+			}
+			fields.add(description(field.getDescription()) + field.name + arguments(method, field.batch ? 1 : 0)
+					+ ": " + outputType(dataType));
+			bindings.add(binding(kind, name, field.name, method));
+		}
+		define(name, objectDefinition("type", name, typeDescription(element, name), fields));
+		return name;
+	}
+
+	/**
+	 * The field type of a batch method: the element type of its List result
+	 * or the value type of its Map result.
+	 */
+	private TypeMirror batchDataType(ExecutableElement method) throws UnsupportedException {
+		if (!method.getModifiers().contains(Modifier.STATIC) || method.getParameters().isEmpty()
+				|| !isErasure(method.getParameters().get(0).asType(), "java.util.List")) {
+			throw new UnsupportedException("batch method " + method);
+		}
+		TypeMirror returnType = method.getReturnType();
+		if (returnType.getKind() == TypeKind.DECLARED && !((DeclaredType) returnType).getTypeArguments().isEmpty()) {
+			List<? extends TypeMirror> arguments = ((DeclaredType) returnType).getTypeArguments();
+			if (isErasure(returnType, "java.util.List")) {
+				return arguments.get(0);
+			}
+			if (isErasure(returnType, "java.util.Map")) {
+				return arguments.get(1);
+			}
+		}
+		throw new UnsupportedException("batch method " + method);
+	}
+
+	/**
+	 * Input objects are bound through an @GraphQLInput constructor or
+	 * through their setters. Records are left to the runtime, as the
+	 * processor may run on a JDK without them.
+	 */
+	private String inputObjectType(TypeElement element) throws UnsupportedException {
+		checkIntrospectable(element);
+		String name = typeName(element, "_IN");
+		if (isDefined("input", name, element)) {
+			return name;
+		}
+		List<ExecutableElement> constructors = ElementFilter.constructorsIn(element.getEnclosedElements());
+		constructors.removeIf(constructor -> !constructor.getModifiers().contains(Modifier.PUBLIC)
+				|| annotation(constructor, "GraphQLInput") == null);
+		List<String> fields = new ArrayList<>();
+		Set<String> fieldNames = new HashSet<>();
+		if (constructors.size() > 1) {
+			throw new UnsupportedException("several input constructors " + element);
+		}
+		if (constructors.size() == 1) {
+			for (VariableElement parameter : constructors.get(0).getParameters()) {
+				String fieldName = parameter.getSimpleName().toString();
+				fieldNames.add(fieldName);
+				fields.add(description(fieldName) + fieldName + ": " + inputType(parameter.asType()));
+			}
+		}
+		else {
+			for (ExecutableElement method : methods(element)) {
+				FieldMethod field = new FieldMethod(method);
+				if (field.kind != FieldKind.SETTER) {
+					continue;
+				}
+				if (!fieldNames.add(field.name)) {
+					throw new UnsupportedException("duplicate field " + name + "." + field.name);
+				}
+				fields.add(description(field.getDescription()) + field.name + ": " + inputType(method.getParameters().get(0).asType()));
+			}
+		}
+		define(name, objectDefinition("input", name, typeDescription(element, name), fields));
+		return name;
+	}
+
+	/**
+	 * Relay connection and edge types of a page, bound to the getters of
+	 * Page and Page.Edge.
+	 */
+	private String connectionType(TypeMirror nodeType) throws UnsupportedException {
+		String node = outputType(nodeType);
+		if (node.startsWith("[")) {
+			throw new UnsupportedException("page of " + nodeType);
+		}
+		TypeElement page = elements.getTypeElement(API + "Page");
+		TypeElement pageInfo = elements.getTypeElement(API + "PageInfo");
+		TypeElement edge = elements.getTypeElement(API + "Page.Edge");
+		String connectionName = node + "Connection";
+		if (isDefined("type", connectionName, page)) {
+			return connectionName;
+		}
+		String pageInfoName = objectType(pageInfo);
+		String edgeName = node + "Edge";
+		if (!isDefined("type", edgeName, edge)) {
+			bindings.add(binding("GETTER", edgeName, "node", getter(edge, "getNode")));
+			bindings.add(binding("GETTER", edgeName, "cursor", getter(edge, "getCursor")));
+			define(edgeName, objectDefinition("type", edgeName, edgeName, List.of(
+					description("node") + "node: " + node,
+					description("cursor") + "cursor: String")));
+		}
+		bindings.add(binding("GETTER", connectionName, "edges", getter(page, "getEdges")));
+		bindings.add(binding("GETTER", connectionName, "pageInfo", getter(page, "getPageInfo")));
+		define(connectionName, objectDefinition("type", connectionName, connectionName, List.of(
+				description("edges") + "edges: [" + edgeName + "]",
+				description("pageInfo") + "pageInfo: " + pageInfoName)));
+		return connectionName;
+	}
+
+	private ExecutableElement getter(TypeElement type, String name) throws UnsupportedException {
+		for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			if (method.getSimpleName().contentEquals(name) && method.getParameters().isEmpty()) {
+				return method;
+			}
+		}
+		throw new UnsupportedException("no getter " + type + "." + name);
+	}
+
+	/**
+	 * Field arguments, leaving out the parameters injected from the
+	 * environment and adding the paging arguments of fields returning a Page.
+	 */
+	private String arguments(ExecutableElement method, int firstParameter) throws UnsupportedException {
+		List<String> arguments = new ArrayList<>();
+		List<? extends VariableElement> parameters = method.getParameters();
+		for (VariableElement parameter : parameters.subList(Math.min(firstParameter, parameters.size()), parameters.size())) {
+			TypeMirror type = parameter.asType();
+			if (isErasure(type, "graphql.schema.DataFetchingFieldSelectionSet") || isErasure(type, API + "Projection")
+					|| isErasure(type, API + "PageRequest")) {
+				continue;
+			}
+			AnnotationMirror paramAnnotation = annotation(parameter, "GraphQLParam");
+			String name = value(paramAnnotation, "name");
+			if (name.isEmpty()) {
+				name = parameter.getSimpleName().toString();
+			}
+			String description = value(paramAnnotation, "description");
+			arguments.add(description(description.isEmpty() ? name : description) + name + ": " + inputType(type));
+		}
+		if (isPage(method.getReturnType())) {
+			arguments.add(description("Number of items after the cursor") + "first: Int");
+			arguments.add(description("Cursor the page starts after") + "after: String");
+			arguments.add(description("Number of items before the cursor") + "last: Int");
+			arguments.add(description("Cursor the page ends before") + "before: String");
+		}
+		return arguments.isEmpty() ? "" : "(" + String.join(", ", arguments) + ")";
+	}
+
+	private boolean isPage(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).getTypeArguments().isEmpty()) {
+			return false;
+		}
+		if (isSubtype(type, "java.util.concurrent.CompletionStage")) {
+			return isPage(((DeclaredType) type).getTypeArguments().get(0));
+		}
+		return isErasure(type, API + "Page");
+	}
+
+	/**
+	 * Only plain, non-generic classes of this compilation, whose parameter
+	 * names are known, and the PageInfo of the library are mapped.
+	 */
+	private void checkIntrospectable(TypeElement element) throws UnsupportedException {
+		if (element.getKind() != ElementKind.CLASS || !element.getTypeParameters().isEmpty()
+				|| !(compiled.contains(element) || is(element, API + "PageInfo"))) {
+			throw new UnsupportedException("type " + element);
+		}
+	}
+
+	private String typeName(TypeElement element, String postfix) {
+		String name = value(annotation(element, "GraphQLType"), "name");
+		return name.isEmpty() ? element.getSimpleName() + postfix : name;
+	}
+
+	private String typeDescription(TypeElement element, String name) {
+		String description = value(annotation(element, "GraphQLType"), "description");
+		return description.isEmpty() ? name : description;
+	}
+
+	/**
+	 * Reserves the name for the class before its fields are mapped, so
+	 * recursive types refer to it. Returns whether it was reserved already.
+	 */
+	private boolean isDefined(String kind, String name, TypeElement element) throws UnsupportedException {
+		String className = elements.getBinaryName(element).toString();
+		String[] defined = typeDefinitions.get(name);
+		if (defined == null) {
+			typeDefinitions.put(name, new String[] { kind, name, className, null });
+			return false;
+		}
+		if (defined[0].equals(kind) && defined[2].equals(className)) {
+			return true;
+		}
+		throw new UnsupportedException("duplicate type " + name);
+	}
+
+	private void define(String name, String definition) {
+		typeDefinitions.get(name)[3] = definition;
+	}
+
+	private String objectDefinition(String keyword, String name, String description, List<String> fields)
+			throws UnsupportedException {
+		if (fields.isEmpty()) {
+			throw new UnsupportedException("no fields in " + name);
+		}
+		return description(description) + keyword + " " + name + " {\n  " + String.join("\n  ", fields) + "\n}";
+	}
+
+	private String[] binding(String kind, String typeName, String fieldName, ExecutableElement method) throws UnsupportedException {
+		List<String> binding = new ArrayList<>(List.of(kind, typeName, fieldName,
+				elements.getBinaryName((TypeElement) method.getEnclosingElement()).toString(), method.getSimpleName().toString()));
+		for (VariableElement parameter : method.getParameters()) {
+			binding.add(className(parameter.asType()));
+		}
+		return binding.toArray(new String[0]);
+	}
+
+	private String className(TypeMirror type) throws UnsupportedException {
+		if (type.getKind().isPrimitive()) {
+			return type.getKind().name().toLowerCase(Locale.ROOT);
+		}
+		TypeMirror erasure = types.erasure(type);
+		if (erasure.getKind() != TypeKind.DECLARED) {
+			throw new UnsupportedException("parameter type " + type);
+		}
+		return elements.getBinaryName((TypeElement) ((DeclaredType) erasure).asElement()).toString();
+	}
+
+	/**
+	 * Public methods not declared by Object nor annotated with @GraphQLSkip,
+	 * like Class.getMethods() at runtime.
+	 */
+	private List<ExecutableElement> methods(TypeElement type) {
+		List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(type));
+		methods.removeIf(method -> !method.getModifiers().contains(Modifier.PUBLIC)
+				|| ((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object")
+				|| annotation(method, "GraphQLSkip") != null);
+		return methods;
+	}
+
+	private AnnotationMirror annotation(Element element, String simpleName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotationType.getQualifiedName().contentEquals(GraphQLAccessorProcessor.ANNOTATIONS + simpleName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private String value(AnnotationMirror annotation, String attribute) {
+		if (annotation == null) {
+			return "";
+		}
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+				: elements.getElementValuesWithDefaults(annotation).entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+				return String.valueOf(entry.getValue().getValue());
+			}
+		}
+		return "";
+	}
+
+	private boolean is(TypeElement element, String qualifiedName) {
+		return element.getQualifiedName().contentEquals(qualifiedName);
+	}
+
+	private boolean isErasure(TypeMirror type, String qualifiedName) {
+		TypeMirror erasure = types.erasure(type);
+		return erasure.getKind() == TypeKind.DECLARED && is((TypeElement) ((DeclaredType) erasure).asElement(), qualifiedName);
+	}
+
+	private boolean isSubtype(TypeMirror type, String qualifiedName) {
+		TypeElement element = elements.getTypeElement(qualifiedName);
+		return element != null && types.isAssignable(types.erasure(type), types.erasure(element.asType()));
+	}
+
+	private static String decapitalize(String name) {
+		return name.substring(0, 1).toLowerCase() + name.substring(1);
+	}
+
+	/**
+	 * A GraphQL string description followed by a space.
+	 */
+	private static String description(String text) {
+		StringBuilder out = new StringBuilder("\"");
+		for (char c : text.toCharArray()) {
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				default:
+					if (c < 0x20) {
+						out.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						out.append(c);
+					}
+			}
+		}
+		return out.append("\" ").toString();
+	}
+
+	private static String javaString(String text) {
+		StringBuilder out = new StringBuilder("\"");
+		for (char c : text.toCharArray()) {
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				default:
+					if (c < 0x20) {
+						out.append(String.format("\\%03o", (int) c));
+					}
+					else if (c > 0x7e) {
+						out.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						out.append(c);
+					}
+			}
+		}
+		return out.append('"').toString();
+	}
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.jmh;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import revdels.graphql.code1st.annotations.GraphQLInput;
+import revdels.graphql.code1st.api.InvocationMode;
+import revdels.graphql.code1st.schemagen.GeneratedTypes;
+import revdels.graphql.code1st.schemagen.GraphQLFetcherGenerator;
+import revdels.graphql.code1st.schemagen.GraphQLTypeGeneratorImpl;
+
+/**
+ * Measures GenericDataFetcher.get, i.e. argument binding plus the controller
+ * call, for scalar, list and nested input object arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFetcherBenchmark {
+
+	public static class Line {
+		private final String product;
+		private final int quantity;
+
+		@GraphQLInput
+		public Line(String product, int quantity) {
+			this.product = product;
+			this.quantity = quantity;
+		}
+	}
+
+	public static class Order {
+		private final String customer;
+		private final List<Line> lines;
+
+		@GraphQLInput
+		public Order(String customer, List<Line> lines) {
+			this.customer = customer;
+			this.lines = lines;
+		}
+	}
+
+	public static class OrderController {
+
+		public String scalar(String name, int count) {
+			return name;
+		}
+
+		public int list(List<Integer> values) {
+			return values.size();
+		}
+
+		public int nested(Order order) {
+			return order.lines.size() + order.customer.length();
+		}
+	}
+
+	@Param({ "REFLECTION", "METHOD_HANDLE", "GENERATED" })
+	public InvocationMode invocationMode;
+
+	private DataFetcher<?> scalarFetcher;
+	private DataFetcher<?> listFetcher;
+	private DataFetcher<?> nestedFetcher;
+	private DataFetchingEnvironment scalarEnvironment;
+	private DataFetchingEnvironment listEnvironment;
+	private DataFetchingEnvironment nestedEnvironment;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		GraphQLFetcherGenerator fetcherGenerator = GraphQLTypeGeneratorImpl.newTypeGenerator(new GeneratedTypes()).getFetcherGenerator();
+		fetcherGenerator.setInvocationMode(invocationMode);
+		OrderController controller = new OrderController();
+		scalarFetcher = fetcherGenerator.generate(controller, method("scalar"));
+		listFetcher = fetcherGenerator.generate(controller, method("list"));
+		nestedFetcher = fetcherGenerator.generate(controller, method("nested"));
+
+		Map<String, Object> scalarArguments = new HashMap<>();
+		scalarArguments.put("name", "Smith");
+		scalarArguments.put("count", 3);
+		scalarEnvironment = environment(scalarArguments);
+
+		List<Object> values = new ArrayList<>();
+		List<Object> lines = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(i);
+			Map<String, Object> line = new HashMap<>();
+			line.put("product", "product" + i);
+			line.put("quantity", i);
+			lines.add(line);
+		}
+		Map<String, Object> listArguments = new HashMap<>();
+		listArguments.put("values", values);
+		listEnvironment = environment(listArguments);
+
+		Map<String, Object> order = new HashMap<>();
+		order.put("customer", "Smith");
+		order.put("lines", lines);
+		Map<String, Object> nestedArguments = new HashMap<>();
+		nestedArguments.put("order", order);
+		nestedEnvironment = environment(nestedArguments);
+	}
+
+	private static Method method(String name) {
+		for (Method method : OrderController.class.getMethods()) {
+			if (method.getName().equals(name)) {
+				return method;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	private static DataFetchingEnvironment environment(Map<String, Object> arguments) {
+		return DataFetchingEnvironmentImpl.newDataFetchingEnvironment().arguments(arguments).build();
+	}
+
+	@Benchmark
+	public Object scalarArguments() throws Exception {
+		return scalarFetcher.get(scalarEnvironment);
+	}
+
+	@Benchmark
+	public Object listArgument() throws Exception {
+		return listFetcher.get(listEnvironment);
+	}
+
+	@Benchmark
+	public Object nestedArgument() throws Exception {
+		return nestedFetcher.get(nestedEnvironment);
+	}
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.jmh;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import revdels.graphql.code1st.api.InvocationMode;
+import revdels.graphql.code1st.fetchers.AccessorFactory;
+import revdels.graphql.code1st.fetchers.InputBinder;
+import revdels.graphql.code1st.fetchers.PropertyGetter;
+import revdels.graphql.code1st.schemagen.GeneratedTypes;
+import revdels.graphql.code1st.schemagen.GraphQLTypeGenerator;
+import revdels.graphql.code1st.schemagen.GraphQLTypeGeneratorImpl;
+
+/**
+ * Compares the reflective, method handle and generated DTO accessors when
+ * binding an input object and when reading all properties of an output object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoCodecBenchmark {
+
+	@Param({ "REFLECTION", "METHOD_HANDLE", "GENERATED" })
+	public InvocationMode invocationMode;
+
+	private InputBinder inputBinder;
+	private PropertyGetter[] getters;
+	private Map<String, Object> rawInput;
+	private WideDto dto;
+
+	@Setup
+	public void setup() {
+		GraphQLTypeGenerator typeGenerator = GraphQLTypeGeneratorImpl.newTypeGenerator(new GeneratedTypes());
+		typeGenerator.getFetcherGenerator().setInvocationMode(invocationMode);
+		inputBinder = typeGenerator.generateInputBinder(WideDto.class);
+
+		AccessorFactory accessors = typeGenerator.getFetcherGenerator().getAccessorFactory();
+		List<PropertyGetter> getterList = new ArrayList<>();
+		rawInput = new HashMap<>();
+		for (Method method : WideDto.class.getDeclaredMethods()) {
+			String name = method.getName();
+			if (name.startsWith("get")) {
+				getterList.add(accessors.getter(method));
+				String fieldName = "f" + name.substring(4);
+				rawInput.put(fieldName, method.getReturnType() == int.class ? (Object) fieldName.length() : fieldName);
+			}
+		}
+		getters = getterList.toArray(new PropertyGetter[0]);
+		dto = (WideDto) inputBinder.bind(rawInput);
+	}
+
+	@Benchmark
+	public Object bindInput() {
+		return inputBinder.bind(rawInput);
+	}
+
+	@Benchmark
+	public void readOutput(Blackhole blackhole) throws Exception {
+		for (PropertyGetter getter : getters) {
+			blackhole.consume(getter.get(dto));
+		}
+	}
+
+}
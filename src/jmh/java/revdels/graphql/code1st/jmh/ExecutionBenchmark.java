@@ -0,0 +1,135 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import revdels.graphql.code1st.annotations.GraphQLQuery;
+import revdels.graphql.code1st.api.GraphQLSchemaGenerator;
+import revdels.graphql.code1st.api.InvocationMode;
+
+/**
+ * Executes complete queries: a wide one selecting all 40 fields of a list of
+ * DTOs and a deep one following a chain of nested objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionBenchmark {
+
+	private static final int WIDE_SIZE = 100;
+	private static final int DEEP_DEPTH = 20;
+
+	public static class Node {
+		private final int level;
+
+		public Node(int level) {
+			this.level = level;
+		}
+
+		public int getLevel() {
+			return level;
+		}
+
+		public Node getChild() {
+			return new Node(level + 1);
+		}
+	}
+
+	public static class ExecutionController {
+		private final List<WideDto> dtos = new ArrayList<>();
+
+		public ExecutionController() {
+			for (int i = 0; i < WIDE_SIZE; i++) {
+				WideDto dto = new WideDto();
+				dto.setField00("dto" + i);
+				dto.setField01(i);
+				dtos.add(dto);
+			}
+		}
+
+		@GraphQLQuery
+		public List<WideDto> wide() {
+			return dtos;
+		}
+
+		@GraphQLQuery
+		public Node deep() {
+			return new Node(0);
+		}
+	}
+
+	@Param({ "REFLECTION", "METHOD_HANDLE", "GENERATED" })
+	public InvocationMode invocationMode;
+
+	private GraphQL graphQL;
+	private String wideQuery;
+	private String deepQuery;
+
+	@Setup
+	public void setup() {
+		GraphQLSchemaGenerator generator = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		generator.setInvocationMode(invocationMode);
+		generator.addController("Execution", new ExecutionController());
+		graphQL = GraphQL.newGraphQL(generator.generate()).build();
+
+		StringBuilder wide = new StringBuilder("{ wide {");
+		for (int field = 0; field < 40; field++) {
+			wide.append(String.format(" field%02d", field));
+		}
+		wideQuery = wide.append(" } }").toString();
+
+		StringBuilder deep = new StringBuilder("{ deep {");
+		for (int level = 0; level < DEEP_DEPTH; level++) {
+			deep.append(" level child {");
+		}
+		deep.append(" level");
+		for (int level = 0; level <= DEEP_DEPTH; level++) {
+			deep.append(" }");
+		}
+		deepQuery = deep.append(" }").toString();
+	}
+
+	@Benchmark
+	public ExecutionResult wideQuery() {
+		return graphQL.execute(wideQuery);
+	}
+
+	@Benchmark
+	public ExecutionResult deepQuery() {
+		return graphQL.execute(deepQuery);
+	}
+
+}
@@ -13,12 +13,10 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package revdels.graphql.code1st.fetchers;
+package revdels.graphql.code1st.jmh;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -33,8 +31,14 @@ import graphql.schema.GraphQLType;
 import graphql.schema.GraphQLTypeVisitorStub;
 import graphql.util.TraversalControl;
 import graphql.util.TraverserContext;
+import revdels.graphql.code1st.fetchers.InputObjectBinder;
 import revdels.graphql.code1st.schemagen.GeneratedTypes;
 
+/**
+ * The binding path used before argument plans: visits the GraphQL input type
+ * and binds the raw value on every call. Kept as the InputListBenchmark
+ * baseline.
+ */
 public class GraphQLInputFetcher extends GraphQLTypeVisitorStub {
 
 	private Object rawValue;
@@ -70,52 +74,26 @@ public class GraphQLInputFetcher extends GraphQLTypeVisitorStub {
 	@SuppressWarnings("unchecked")
 	@Override
 	public TraversalControl visitGraphQLInputObjectType(GraphQLInputObjectType objectType,TraverserContext<GraphQLSchemaElement> context) {
-		Class<?> javaType = generatedTypes.getJavaType(objectType.getName());
+		InputObjectBinder binder = generatedTypes.getInputBinder(objectType.getName());
 
-		value = createObject(javaType);
+		Map<String, Object> fieldValues = new LinkedHashMap<>();
 		for (Entry<String, Object> field : ((Map<String, Object>) rawValue).entrySet()) {
 			GraphQLInputType fieldType = objectType.getFieldDefinition(field.getKey()).getType();
 			GraphQLInputFetcher fieldFetcher = new GraphQLInputFetcher(generatedTypes, field.getValue());
 			fieldType.accept(context, fieldFetcher);
-			setAttribute(field.getKey(), fieldFetcher.getValue());
+			fieldValues.put(field.getKey(), fieldFetcher.getValue());
 		}
+		value = binder.bindFields(fieldValues);
 		return TraversalControl.CONTINUE;
 	}
 
-	private void setAttribute(String fieldName, Object fieldValue) {
-		String setterName = "set" + 
-			   fieldName.substring(0,1).toUpperCase() +
-			   fieldName.substring(1);		
-		Method setter = 
-				Arrays.stream(value.getClass().getMethods())
-					.filter(method -> method.getName().equals(setterName))
-					.findFirst()
-					.orElseThrow(() -> new IllegalStateException("No setter: " + setterName));
-		try {
-			setter.invoke(value, fieldValue);
-		}
-		catch (Exception e) {
-			throw new IllegalStateException("Setter failed: " + setterName, e);
-		}
-	}
-
-	private Object createObject(Class<?> javaType) {
-		try {
-			Constructor<?> constructor = javaType.getConstructor();
-			return constructor.newInstance();
-		}
-		catch (Exception e) {
-			throw new IllegalStateException("Construction failed: " + javaType.toString(), e);
-		}
-	}
-
 	@Override
     public TraversalControl visitGraphQLEnumType(GraphQLEnumType enumType, TraverserContext<GraphQLSchemaElement> context) {
     	value = rawValue;
     	return TraversalControl.CONTINUE;    	
     }
 
-	Object getValue() {
+	public Object getValue() {
 		return value;
 	}
 
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.jmh;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.schema.GraphQLInputType;
+import revdels.graphql.code1st.fetchers.InputBinder;
+import revdels.graphql.code1st.schemagen.GeneratedTypes;
+import revdels.graphql.code1st.schemagen.GraphQLTypeGenerator;
+import revdels.graphql.code1st.schemagen.GraphQLTypeGeneratorImpl;
+
+/**
+ * Binds a large list of input objects, once by visiting the GraphQL input
+ * type with GraphQLInputFetcher and once with the compiled InputBinder that
+ * the fetchers use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputListBenchmark {
+
+	@Param({ "100", "10000" })
+	public int size;
+
+	private GeneratedTypes generatedTypes;
+	private GraphQLInputType inputType;
+	private InputBinder inputBinder;
+	private List<Object> rawInput;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		generatedTypes = new GeneratedTypes();
+		GraphQLTypeGenerator typeGenerator = GraphQLTypeGeneratorImpl.newTypeGenerator(generatedTypes);
+		Type listType = InputListBenchmark.class.getDeclaredMethod("bind", List.class).getGenericParameterTypes()[0];
+		inputType = typeGenerator.generateInputType(listType);
+		inputBinder = typeGenerator.generateInputBinder(listType);
+		rawInput = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Map<String, Object> dto = new HashMap<>();
+			for (int field = 0; field < 40; field++) {
+				String name = String.format("field%02d", field);
+				dto.put(name, field % 2 == 0 ? (Object) name : (Object) field);
+			}
+			rawInput.add(dto);
+		}
+	}
+
+	/**
+	 * Declares the bound list type.
+	 */
+	static void bind(List<WideDto> dtos) {
+	}
+
+	@Benchmark
+	public Object inputFetcher() {
+		GraphQLInputFetcher fetcher = new GraphQLInputFetcher(generatedTypes, rawInput);
+		inputType.accept(null, fetcher);
+		return fetcher.getValue();
+	}
+
+	@Benchmark
+	public Object inputBinder() {
+		return inputBinder.bind(rawInput);
+	}
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.jmh;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.schema.GraphQLSchema;
+import revdels.graphql.code1st.api.GraphQLSchemaGenerator;
+
+/**
+ * Generates the schema of a synthetic DTO graph of the given number of
+ * types. The models are generated by the generateJmhModel task, one package
+ * per size. Class introspection is cached JVM-wide, so this measures warm
+ * regeneration, e.g. per test context. With compiledSchema the schema is
+ * built from the SDL the annotation processor generated for the model, so
+ * parallel makes no difference there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaGenerationBenchmark {
+
+	@Param({ "100", "1000", "5000" })
+	public int types;
+
+	@Param({ "false", "true" })
+	public boolean parallel;
+
+	@Param({ "false", "true" })
+	public boolean compiledSchema;
+
+	private Class<?> controllerClass;
+
+	@Setup
+	public void setup() throws ClassNotFoundException {
+		controllerClass = Class.forName("revdels.graphql.code1st.jmh.model" + types + ".ModelController");
+	}
+
+	@Benchmark
+	public GraphQLSchema generate() throws ReflectiveOperationException {
+		GraphQLSchemaGenerator generator = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		generator.setCompiledSchema(compiledSchema);
+		generator.addController("Model", controllerClass.getConstructor().newInstance());
+		return parallel ? generator.generateParallel(ForkJoinPool.commonPool()) : generator.generate();
+	}
+
+}
@@ -0,0 +1,384 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.jmh;
+
+/**
+ * A wide (40 property) DTO, used as both input and output type.
+ */
+public class WideDto {
+
+	private String field00;
+	private int field01;
+	private String field02;
+	private int field03;
+	private String field04;
+	private int field05;
+	private String field06;
+	private int field07;
+	private String field08;
+	private int field09;
+	private String field10;
+	private int field11;
+	private String field12;
+	private int field13;
+	private String field14;
+	private int field15;
+	private String field16;
+	private int field17;
+	private String field18;
+	private int field19;
+	private String field20;
+	private int field21;
+	private String field22;
+	private int field23;
+	private String field24;
+	private int field25;
+	private String field26;
+	private int field27;
+	private String field28;
+	private int field29;
+	private String field30;
+	private int field31;
+	private String field32;
+	private int field33;
+	private String field34;
+	private int field35;
+	private String field36;
+	private int field37;
+	private String field38;
+	private int field39;
+
+	public String getField00() {
+		return field00;
+	}
+
+	public void setField00(String field00) {
+		this.field00 = field00;
+	}
+
+	public int getField01() {
+		return field01;
+	}
+
+	public void setField01(int field01) {
+		this.field01 = field01;
+	}
+
+	public String getField02() {
+		return field02;
+	}
+
+	public void setField02(String field02) {
+		this.field02 = field02;
+	}
+
+	public int getField03() {
+		return field03;
+	}
+
+	public void setField03(int field03) {
+		this.field03 = field03;
+	}
+
+	public String getField04() {
+		return field04;
+	}
+
+	public void setField04(String field04) {
+		this.field04 = field04;
+	}
+
+	public int getField05() {
+		return field05;
+	}
+
+	public void setField05(int field05) {
+		this.field05 = field05;
+	}
+
+	public String getField06() {
+		return field06;
+	}
+
+	public void setField06(String field06) {
+		this.field06 = field06;
+	}
+
+	public int getField07() {
+		return field07;
+	}
+
+	public void setField07(int field07) {
+		this.field07 = field07;
+	}
+
+	public String getField08() {
+		return field08;
+	}
+
+	public void setField08(String field08) {
+		this.field08 = field08;
+	}
+
+	public int getField09() {
+		return field09;
+	}
+
+	public void setField09(int field09) {
+		this.field09 = field09;
+	}
+
+	public String getField10() {
+		return field10;
+	}
+
+	public void setField10(String field10) {
+		this.field10 = field10;
+	}
+
+	public int getField11() {
+		return field11;
+	}
+
+	public void setField11(int field11) {
+		this.field11 = field11;
+	}
+
+	public String getField12() {
+		return field12;
+	}
+
+	public void setField12(String field12) {
+		this.field12 = field12;
+	}
+
+	public int getField13() {
+		return field13;
+	}
+
+	public void setField13(int field13) {
+		this.field13 = field13;
+	}
+
+	public String getField14() {
+		return field14;
+	}
+
+	public void setField14(String field14) {
+		this.field14 = field14;
+	}
+
+	public int getField15() {
+		return field15;
+	}
+
+	public void setField15(int field15) {
+		this.field15 = field15;
+	}
+
+	public String getField16() {
+		return field16;
+	}
+
+	public void setField16(String field16) {
+		this.field16 = field16;
+	}
+
+	public int getField17() {
+		return field17;
+	}
+
+	public void setField17(int field17) {
+		this.field17 = field17;
+	}
+
+	public String getField18() {
+		return field18;
+	}
+
+	public void setField18(String field18) {
+		this.field18 = field18;
+	}
+
+	public int getField19() {
+		return field19;
+	}
+
+	public void setField19(int field19) {
+		this.field19 = field19;
+	}
+
+	public String getField20() {
+		return field20;
+	}
+
+	public void setField20(String field20) {
+		this.field20 = field20;
+	}
+
+	public int getField21() {
+		return field21;
+	}
+
+	public void setField21(int field21) {
+		this.field21 = field21;
+	}
+
+	public String getField22() {
+		return field22;
+	}
+
+	public void setField22(String field22) {
+		this.field22 = field22;
+	}
+
+	public int getField23() {
+		return field23;
+	}
+
+	public void setField23(int field23) {
+		this.field23 = field23;
+	}
+
+	public String getField24() {
+		return field24;
+	}
+
+	public void setField24(String field24) {
+		this.field24 = field24;
+	}
+
+	public int getField25() {
+		return field25;
+	}
+
+	public void setField25(int field25) {
+		this.field25 = field25;
+	}
+
+	public String getField26() {
+		return field26;
+	}
+
+	public void setField26(String field26) {
+		this.field26 = field26;
+	}
+
+	public int getField27() {
+		return field27;
+	}
+
+	public void setField27(int field27) {
+		this.field27 = field27;
+	}
+
+	public String getField28() {
+		return field28;
+	}
+
+	public void setField28(String field28) {
+		this.field28 = field28;
+	}
+
+	public int getField29() {
+		return field29;
+	}
+
+	public void setField29(int field29) {
+		this.field29 = field29;
+	}
+
+	public String getField30() {
+		return field30;
+	}
+
+	public void setField30(String field30) {
+		this.field30 = field30;
+	}
+
+	public int getField31() {
+		return field31;
+	}
+
+	public void setField31(int field31) {
+		this.field31 = field31;
+	}
+
+	public String getField32() {
+		return field32;
+	}
+
+	public void setField32(String field32) {
+		this.field32 = field32;
+	}
+
+	public int getField33() {
+		return field33;
+	}
+
+	public void setField33(int field33) {
+		this.field33 = field33;
+	}
+
+	public String getField34() {
+		return field34;
+	}
+
+	public void setField34(String field34) {
+		this.field34 = field34;
+	}
+
+	public int getField35() {
+		return field35;
+	}
+
+	public void setField35(int field35) {
+		this.field35 = field35;
+	}
+
+	public String getField36() {
+		return field36;
+	}
+
+	public void setField36(String field36) {
+		this.field36 = field36;
+	}
+
+	public int getField37() {
+		return field37;
+	}
+
+	public void setField37(int field37) {
+		this.field37 = field37;
+	}
+
+	public String getField38() {
+		return field38;
+	}
+
+	public void setField38(String field38) {
+		this.field38 = field38;
+	}
+
+	public int getField39() {
+		return field39;
+	}
+
+	public void setField39(int field39) {
+		this.field39 = field39;
+	}
+
+}
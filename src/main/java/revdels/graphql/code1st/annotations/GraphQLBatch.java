@@ -0,0 +1,38 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a static DTO method that resolves a field for many parents at once,
+ * e.g. {@code static List<Order> orders(List<Customer> customers, int limit)}
+ * or {@code static Map<Customer, List<Order>> orders(List<Customer> customers)}.
+ * The first parameter receives the parent objects, the remaining parameters
+ * are the field arguments. Calls are batched per query level through a
+ * DataLoader, see GraphQLSchemaGenerator.newDataLoaderRegistry.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface GraphQLBatch {
+	/** Maximum number of parents per call, 0 for no limit. */
+	int maxBatchSize() default 0;
+	/** Whether results are cached per parent and arguments for the whole request. */
+	boolean caching() default true;
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of a @GraphQLQuery method by its arguments, for
+ * methods that return the same answer for a while, e.g. reads of reference
+ * data. Concurrent calls with the same arguments share one method call.
+ * Entries are invalidated through GraphQLSchemaGenerator.getResultCache.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface GraphQLCacheable {
+	/** How long a result is cached. */
+	long ttl() default 60;
+	TimeUnit unit() default TimeUnit.SECONDS;
+	/** Maximum number of cached argument combinations. */
+	int maxEntries() default 1000;
+	/** Maximum total weight, where a collection, map or array result weighs its size and other results 1; 0 for no limit. */
+	long maxWeight() default 0;
+}
@@ -26,4 +26,9 @@ public @interface GraphQLField {
 	String name() default "";
 	String description() default "";
 	boolean required() default false;
+	Offload offload() default Offload.DEFAULT;
+	/** Cost of the field itself, added to the cost of its selections, see QueryCostInstrumentation. */
+	int cost() default 1;
+	/** Name of an argument, e.g. a page size, whose value multiplies the cost of the field and its selections. */
+	String multiplier() default "";
 }
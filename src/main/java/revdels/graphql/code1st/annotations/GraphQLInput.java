@@ -20,8 +20,12 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Marks a class as GraphQL input type or, on a constructor, selects the
+ * all-args constructor that binds the input fields by parameter name.
+ */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.TYPE)
+@Target({ElementType.TYPE, ElementType.CONSTRUCTOR})
 public @interface GraphQLInput {
 	String name() default "";
 	String description() default "";
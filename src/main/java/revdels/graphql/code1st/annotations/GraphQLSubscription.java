@@ -25,5 +25,10 @@ import java.lang.annotation.Target;
 public @interface GraphQLSubscription {
 	String name() default "";
 	String description() default "";
+	Backpressure backpressure() default Backpressure.NONE;
+	/** Buffer capacity for the BUFFER and DROP_OLDEST policies. */
+	int bufferSize() default 256;
+	/** Share one upstream between subscribers with the same arguments. */
+	boolean shared() default false;
 
 }
@@ -0,0 +1,29 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.annotations;
+
+/**
+ * Per-method override of the generator's offload mode, see
+ * GraphQLSchemaGenerator.setOffload.
+ */
+public enum Offload {
+	/** Follow the generator's setting. */
+	DEFAULT,
+	/** Always run the method on the offload executor. */
+	ALWAYS,
+	/** Always run the method on the graphql-java execution thread. */
+	NEVER
+}
@@ -15,7 +15,16 @@
  */
 package revdels.graphql.code1st.api;
 
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+import org.dataloader.DataLoaderRegistry;
+
 import graphql.schema.GraphQLSchema;
+import revdels.graphql.code1st.execution.PreparsedDocumentCache;
+import revdels.graphql.code1st.fetchers.ResultCache;
+import revdels.graphql.code1st.instrumentation.QueryCostInstrumentation;
+import revdels.graphql.code1st.metrics.MetricsRecorder;
 import revdels.graphql.code1st.schemagen.GraphQLSchemaGeneratorImpl;
 
 public interface GraphQLSchemaGenerator {
@@ -26,6 +35,143 @@ public interface GraphQLSchemaGenerator {
 
 	GraphQLSchema generate();
 
+	/**
+	 * Generates the schema like generate(), introspecting the root fields of
+	 * the controllers and the types they reach in parallel on the executor,
+	 * e.g. a ForkJoinPool. The resulting schema is the same as the one
+	 * generate() builds.
+	 */
+	GraphQLSchema generateParallel(Executor executor);
+
+	/**
+	 * Registers a controller; its methods are introspected by the next
+	 * generate(). A controller with the same name is replaced. Safe to call
+	 * from several threads.
+	 */
 	void addController(String name, Object controller);
 
+	/**
+	 * Removes a controller; its root fields, and the types only they use,
+	 * are gone from the next generate(). Schemas generated before keep
+	 * working unchanged.
+	 */
+	void removeController(String name);
+
+	/**
+	 * Persists the generated schema to a snapshot file and starts from it
+	 * when the fingerprint of the participating classes still matches, which
+	 * skips the reflective type walk. Controllers are then only introspected
+	 * when the snapshot is missing or stale, after which it is rewritten.
+	 */
+	void setSnapshot(Path path);
+
+	/**
+	 * Whether generate() builds the schema from the classes the annotation
+	 * processor generated for the controllers, skipping the reflective type
+	 * walk. Applies only when every controller has one and no snapshot is
+	 * set; otherwise the controllers are introspected. Defaults to false.
+	 */
+	void setCompiledSchema(boolean compiledSchema);
+
+	/**
+	 * Creates a registry with a new DataLoader for every @GraphQLBatch field.
+	 * Pass a fresh registry with each ExecutionInput, so batching and caching
+	 * are scoped to one request.
+	 */
+	DataLoaderRegistry newDataLoaderRegistry();
+
+	/**
+	 * Creates an instrumentation rejecting operations that cost more than
+	 * maxCost, using the field costs declared by the cost and multiplier
+	 * attributes of the schema last generated. Create it after generate().
+	 */
+	QueryCostInstrumentation newQueryCostInstrumentation(int maxCost);
+
+	/**
+	 * Creates a document cache of maxWeight query characters bound to the
+	 * schema last generated. Create a new one after each generate(), the
+	 * documents of a cache are only valid for its schema.
+	 */
+	PreparsedDocumentCache newPreparsedDocumentCache(long maxWeight);
+
+	/**
+	 * The result caches of the @GraphQLCacheable queries, to invalidate
+	 * entries by field name or arguments, e.g. from a mutation.
+	 */
+	ResultCache getResultCache();
+
+	/**
+	 * Selects how data fetchers call controller and DTO methods. Applies to
+	 * controllers generated after this call, i.e. by the next generate().
+	 */
+	void setInvocationMode(InvocationMode invocationMode);
+
+	/**
+	 * Whether getter fetchers are marked as graphql.TrivialDataFetcher, so
+	 * instrumentation skips them. Defaults to true, like PropertyDataFetcher.
+	 */
+	void setTrivialGetters(boolean trivialGetters);
+
+	/**
+	 * Runs blocking controller and field methods on the offload executor and
+	 * returns their result as a CompletableFuture, so sibling fields run in
+	 * parallel. Methods returning a CompletionStage and subscriptions are not
+	 * offloaded. The offload attribute of @GraphQLQuery, @GraphQLMutation and
+	 * @GraphQLField overrides this per method. Applies to controllers
+	 * generated after this call, i.e. by the next generate().
+	 */
+	void setOffload(boolean offload);
+
+	/**
+	 * Defers object types nested more than depth object levels below a root
+	 * field: they are registered as type references and generated together
+	 * once all root fields are, in parallel by generateParallel(). A negative
+	 * depth, the default, generates every type where it is first reached.
+	 */
+	void setLazyDepth(int depth);
+
+	/**
+	 * Bounds the page size of fields returning a Page, and is the size of a
+	 * page when the client asks for none. Defaults to 100.
+	 */
+	void setMaxPageSize(int maxPageSize);
+
+	/**
+	 * Bounds the number of items read from a Stream, Iterator or Iterable
+	 * returned for a list field; a longer result fails the field. Defaults
+	 * to 100000. Applies to fields generated after this call.
+	 */
+	void setMaxListSize(int maxListSize);
+
+	/**
+	 * Records the invocations of the generated fetchers, per field and per
+	 * controller, e.g. with an InMemoryMetricsRecorder. Without a recorder,
+	 * the default, fetchers are not wrapped at all. Subscriptions are not
+	 * recorded: their fetcher only creates the publisher, so its timing and
+	 * outcome say nothing about the events. Applies to the next generate().
+	 */
+	void setMetricsRecorder(MetricsRecorder metricsRecorder);
+
+	/**
+	 * Whether plain getter fields are recorded too. Defaults to false: they
+	 * are cheap and numerous, and a wrapper hides that they are trivial.
+	 */
+	void setGetterMetrics(boolean getterMetrics);
+
+	/**
+	 * Executor for offloaded methods. Defaults to a virtual-thread-per-task
+	 * executor on JDK 21+ and to a bounded platform thread pool otherwise,
+	 * created on first use. An executor set here is never shut down by the
+	 * generator.
+	 */
+	void setOffloadExecutor(Executor executor);
+
+	/**
+	 * Shuts down the default offload executor once the schemas generated so
+	 * far are no longer executed; offloaded fields of those schemas fail
+	 * afterwards. Its threads are daemon threads, so skipping this does not
+	 * keep the JVM alive.
+	 */
+	void shutdownOffloadExecutor();
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.api;
+
+/**
+ * How generated data fetchers call controller and DTO methods.
+ */
+public enum InvocationMode {
+	/**
+	 * Direct method handles, bound once at schema generation time (default).
+	 * Getters get a dedicated fetcher instead of graphql-java's
+	 * PropertyDataFetcher.
+	 */
+	METHOD_HANDLE,
+	/**
+	 * {@link java.lang.reflect.Method#invoke}, for comparison and fallback.
+	 * Getters are left to graphql-java's PropertyDataFetcher.
+	 */
+	REFLECTION,
+	/**
+	 * Accessors generated by the annotation processor, where present.
+	 * Otherwise method handles for controller methods and LambdaMetafactory
+	 * accessor classes for DTO constructors, setters and getters.
+	 */
+	GENERATED
+}
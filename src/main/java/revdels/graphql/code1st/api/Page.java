@@ -0,0 +1,108 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of items returned by a query or field. The generator exposes
+ * <code>Page&lt;T&gt;</code> as a Relay connection: the T type gets
+ * <code>TConnection</code> and <code>TEdge</code> types, and the field gets
+ * the first/after/last/before arguments, which the method receives as a
+ * {@link PageRequest}.
+ * <p>
+ * Every item carries a key, the keyset state from which the next page
+ * continues, e.g. the sort columns of its row. Clients see the key only as
+ * an opaque cursor.
+ */
+public final class Page<T> {
+
+	private final List<T> items;
+	private final List<String> keys;
+	private final boolean hasPreviousPage;
+	private final boolean hasNextPage;
+
+	public Page(List<T> items, List<String> keys, boolean hasPreviousPage, boolean hasNextPage) {
+		if (items.size() != keys.size()) {
+			throw new IllegalArgumentException("Each item needs exactly one key");
+		}
+		this.items = Collections.unmodifiableList(items);
+		this.keys = Collections.unmodifiableList(keys);
+		this.hasPreviousPage = hasPreviousPage;
+		this.hasNextPage = hasNextPage;
+	}
+
+	/**
+	 * Builds the page from the items read for a request: in the direction of
+	 * the request, so descending from the before key for a backward request,
+	 * and up to one more than the limit, which tells there are more items.
+	 */
+	public static <T> Page<T> of(List<T> items, PageRequest request, Function<? super T, String> key) {
+		int limit = request.getLimit();
+		boolean more = items.size() > limit;
+		List<T> page = new ArrayList<>(more ? items.subList(0, limit) : items);
+		if (request.isBackward()) {
+			Collections.reverse(page);
+			return new Page<>(page, keys(page, key), more, request.getBefore() != null);
+		}
+		return new Page<>(page, keys(page, key), request.getAfter() != null, more);
+	}
+
+	private static <T> List<String> keys(List<T> items, Function<? super T, String> key) {
+		return items.stream().map(key).collect(Collectors.toList());
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public List<Edge<T>> getEdges() {
+		List<Edge<T>> edges = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			edges.add(new Edge<>(items.get(i), PageRequest.encodeCursor(keys.get(i))));
+		}
+		return edges;
+	}
+
+	public PageInfo getPageInfo() {
+		return new PageInfo(hasPreviousPage, hasNextPage,
+				keys.isEmpty() ? null : PageRequest.encodeCursor(keys.get(0)),
+				keys.isEmpty() ? null : PageRequest.encodeCursor(keys.get(keys.size() - 1)));
+	}
+
+	public static final class Edge<T> {
+		private final T node;
+		private final String cursor;
+
+		Edge(T node, String cursor) {
+			this.node = node;
+			this.cursor = cursor;
+		}
+
+		public T getNode() {
+			return node;
+		}
+
+		public String getCursor() {
+			return cursor;
+		}
+	}
+
+}
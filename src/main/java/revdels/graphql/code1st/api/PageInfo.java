@@ -0,0 +1,51 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.api;
+
+/**
+ * Relay page info of a connection.
+ */
+public final class PageInfo {
+
+	private final boolean hasPreviousPage;
+	private final boolean hasNextPage;
+	private final String startCursor;
+	private final String endCursor;
+
+	PageInfo(boolean hasPreviousPage, boolean hasNextPage, String startCursor, String endCursor) {
+		this.hasPreviousPage = hasPreviousPage;
+		this.hasNextPage = hasNextPage;
+		this.startCursor = startCursor;
+		this.endCursor = endCursor;
+	}
+
+	public boolean isHasPreviousPage() {
+		return hasPreviousPage;
+	}
+
+	public boolean isHasNextPage() {
+		return hasNextPage;
+	}
+
+	public String getStartCursor() {
+		return startCursor;
+	}
+
+	public String getEndCursor() {
+		return endCursor;
+	}
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The page a client asked for with the first/after/last/before arguments of
+ * a field returning a {@link Page}. Declare a parameter of this type to
+ * receive it; the cursors are handed over decoded, as the keyset state the
+ * controller put into the page that produced them.
+ */
+public final class PageRequest {
+
+	private final Integer first;
+	private final String after;
+	private final Integer last;
+	private final String before;
+	private final int maxPageSize;
+
+	public PageRequest(Integer first, String after, Integer last, String before, int maxPageSize) {
+		if (first != null && last != null) {
+			throw new IllegalArgumentException("first and last cannot be combined");
+		}
+		if ((first != null && first < 0) || (last != null && last < 0)) {
+			throw new IllegalArgumentException("Page size must not be negative");
+		}
+		this.first = first;
+		this.after = after;
+		this.last = last;
+		this.before = before;
+		this.maxPageSize = maxPageSize;
+	}
+
+	/**
+	 * Key of the item after which the page starts, null for the first page.
+	 */
+	public String getAfter() {
+		return after;
+	}
+
+	/**
+	 * Key of the item before which the page ends, null for the last page.
+	 */
+	public String getBefore() {
+		return before;
+	}
+
+	/**
+	 * Whether the client pages backwards with last/before.
+	 */
+	public boolean isBackward() {
+		return last != null || (first == null && before != null);
+	}
+
+	/**
+	 * The number of items on the page: the requested size bounded by the
+	 * maximum page size, which is also the size when none was requested.
+	 */
+	public int getLimit() {
+		Integer size = isBackward() ? last : first;
+		return size == null ? maxPageSize : Math.min(size, maxPageSize);
+	}
+
+	@Override
+	public String toString() {
+		return (isBackward() ? "last " : "first ") + getLimit()
+				+ (after != null ? " after " + after : "")
+				+ (before != null ? " before " + before : "");
+	}
+
+	static String encodeCursor(String key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor argument; null stays null.
+	 */
+	public static String decodeCursor(String cursor) {
+		if (cursor == null) {
+			return null;
+		}
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+	}
+
+}
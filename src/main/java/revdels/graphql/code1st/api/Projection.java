@@ -0,0 +1,49 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.api;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The Java properties selected by the client below the current field, as
+ * dotted paths of property names, e.g. "name", "address" and
+ * "address.street". Declare a controller or DTO method parameter of this
+ * type to receive it; the parameter is not a GraphQL argument. For a
+ * method returning a Page the paths are relative to the nodes.
+ */
+public final class Projection {
+
+	private final Set<String> paths;
+
+	public Projection(Set<String> paths) {
+		this.paths = Collections.unmodifiableSet(paths);
+	}
+
+	public Set<String> getPaths() {
+		return paths;
+	}
+
+	public boolean contains(String path) {
+		return paths.contains(path);
+	}
+
+	@Override
+	public String toString() {
+		return paths.toString();
+	}
+
+}
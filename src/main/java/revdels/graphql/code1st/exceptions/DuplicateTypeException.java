@@ -18,7 +18,17 @@ package revdels.graphql.code1st.exceptions;
 public class DuplicateTypeException extends RuntimeException {
 
 	public DuplicateTypeException(String name, Class<?> type1, Class<?> type2) {
-		super(String.format("Conflicting names for GraphQL type %s: %s and %s", name, type1.toString(), type2.toString()));
+		super(message(name, type1, type2));
+	}
+
+	/**
+	 * Names the classes sorted by class name, so the message does not depend
+	 * on which of them was registered first.
+	 */
+	private static String message(String name, Class<?> type1, Class<?> type2) {
+		boolean ordered = type1.getName().compareTo(type2.getName()) <= 0;
+		return String.format("Conflicting names for GraphQL type %s: %s and %s", name,
+				(ordered ? type1 : type2).toString(), (ordered ? type2 : type1).toString());
 	}
 
 	private static final long serialVersionUID = 1L;
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.execution;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graphql.ErrorClassification;
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+
+/**
+ * The errors of the automatic persisted query protocol, as expected by
+ * Apollo clients: the message is the error code.
+ */
+public class PersistedQueryError implements GraphQLError {
+
+	private final String message;
+	private final Map<String, Object> extensions;
+
+	private PersistedQueryError(String message, String code, String hash) {
+		this.message = message;
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("code", code);
+		map.put("persistedQueryId", hash);
+		this.extensions = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * The hash is not known; the client resends it with the query text.
+	 */
+	public static PersistedQueryError notFound(String hash) {
+		return new PersistedQueryError("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND", hash);
+	}
+
+	/**
+	 * The hash sent with a query text is not the SHA-256 of that text.
+	 */
+	public static PersistedQueryError hashMismatch(String hash) {
+		return new PersistedQueryError("PersistedQueryIdInvalid", "PERSISTED_QUERY_ID_INVALID", hash);
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public List<SourceLocation> getLocations() {
+		return null;
+	}
+
+	@Override
+	public ErrorClassification getErrorType() {
+		return ErrorType.ValidationError;
+	}
+
+	@Override
+	public Map<String, Object> getExtensions() {
+		return extensions;
+	}
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.execution;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.schema.GraphQLSchema;
+
+/**
+ * Caches parsed and validated documents by the SHA-256 of their query
+ * text, least recently used first out once the cached query texts exceed
+ * maxWeight characters. Documents with errors are not cached.
+ * <p>
+ * Supports automatic persisted queries: a request whose extensions hold
+ * persistedQuery.sha256Hash may leave the query empty. When the hash is
+ * not cached the result is a PersistedQueryNotFound error, and the client
+ * resends the hash with the full text once.
+ * <p>
+ * A cache is bound to the schema it is created for: its documents were
+ * validated against that schema, so use it only with GraphQL instances
+ * built on the same schema and create a new one when the schema is
+ * generated again, e.g. with GraphQLSchemaGenerator.newPreparsedDocumentCache.
+ */
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+
+	private final GraphQLSchema schema;
+	private final long maxWeight;
+	private final Map<String, CachedDocument> documents = new LinkedHashMap<>(16, 0.75f, true);
+	private long weight;
+
+	private static class CachedDocument {
+		private final PreparsedDocumentEntry entry;
+		private final int weight;
+
+		CachedDocument(PreparsedDocumentEntry entry, int weight) {
+			this.entry = entry;
+			this.weight = weight;
+		}
+	}
+
+	public PreparsedDocumentCache(GraphQLSchema schema, long maxWeight) {
+		this.schema = Objects.requireNonNull(schema, "schema");
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * The schema the cached documents are valid for.
+	 */
+	public GraphQLSchema getSchema() {
+		return schema;
+	}
+
+	@Override
+	public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+			Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+		String query = executionInput.getQuery();
+		boolean hasQuery = query != null && !query.isEmpty();
+		String hash = getPersistedQueryHash(executionInput);
+		if (hash == null) {
+			if (!hasQuery) {
+				return parseAndValidateFunction.apply(executionInput);
+			}
+			hash = sha256(query);
+		}
+		else if (!hasQuery) {
+			PreparsedDocumentEntry entry = get(hash.toLowerCase());
+			return entry != null ? entry : new PreparsedDocumentEntry(PersistedQueryError.notFound(hash));
+		}
+		else if (!hash.equalsIgnoreCase(sha256(query))) {
+			return new PreparsedDocumentEntry(PersistedQueryError.hashMismatch(hash));
+		}
+		PreparsedDocumentEntry entry = get(hash.toLowerCase());
+		if (entry == null) {
+			entry = parseAndValidateFunction.apply(executionInput);
+			if (!entry.hasErrors()) {
+				put(hash.toLowerCase(), entry, query.length());
+			}
+		}
+		return entry;
+	}
+
+	private synchronized PreparsedDocumentEntry get(String hash) {
+		CachedDocument document = documents.get(hash);
+		return document == null ? null : document.entry;
+	}
+
+	private synchronized void put(String hash, PreparsedDocumentEntry entry, int entryWeight) {
+		if (entryWeight > maxWeight) {
+			return;
+		}
+		CachedDocument previous = documents.put(hash, new CachedDocument(entry, entryWeight));
+		weight += entryWeight - (previous == null ? 0 : previous.weight);
+		Iterator<CachedDocument> eldest = documents.values().iterator();
+		while (weight > maxWeight) {
+			weight -= eldest.next().weight;
+			eldest.remove();
+		}
+	}
+
+	public synchronized int size() {
+		return documents.size();
+	}
+
+	public synchronized long weight() {
+		return weight;
+	}
+
+	public synchronized void clear() {
+		documents.clear();
+		weight = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String getPersistedQueryHash(ExecutionInput executionInput) {
+		Map<String, Object> extensions = executionInput.getExtensions();
+		Object persistedQuery = extensions == null ? null : extensions.get("persistedQuery");
+		if (persistedQuery instanceof Map) {
+			Object hash = ((Map<String, Object>) persistedQuery).get("sha256Hash");
+			return hash instanceof String ? (String) hash : null;
+		}
+		return null;
+	}
+
+	static String sha256(String query) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] hash = digest.digest(query.getBytes(StandardCharsets.UTF_8));
+		StringBuilder hex = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+}
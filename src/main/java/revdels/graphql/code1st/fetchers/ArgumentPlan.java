@@ -0,0 +1,60 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.List;
+
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Immutable plan, compiled at schema generation time, that turns the arguments
+ * of a field into the argument array of the Java method backing that field.
+ * Parameters that are not GraphQL arguments, like the selection set, are
+ * injected from the environment.
+ */
+public class ArgumentPlan {
+
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	private final ParameterBinder[] binders;
+
+	public ArgumentPlan(List<ParameterBinder> binders) {
+		this.binders = binders.toArray(new ParameterBinder[0]);
+	}
+
+	/**
+	 * Binds a GraphQL argument to a parameter.
+	 */
+	public static ParameterBinder argument(String argumentName, InputBinder binder) {
+		return environment -> binder.bind(environment.getArgument(argumentName));
+	}
+
+	public Object[] bind(DataFetchingEnvironment environment) {
+		if (binders.length == 0) {
+			return NO_ARGUMENTS;
+		}
+		Object[] args = new Object[binders.length];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = binders[i].bind(environment);
+		}
+		return args;
+	}
+
+	public int size() {
+		return binders.length;
+	}
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Canonical form of coerced GraphQL arguments, used as the key of shared
+ * subscriptions, batches and cached results.
+ */
+final class Arguments {
+
+	private Arguments() {}
+
+	/**
+	 * Argument maps are compared by content with null values dropped, so
+	 * <code>ticker(symbol: "A", depth: null)</code> and
+	 * <code>ticker(symbol: "A")</code> get the same key.
+	 */
+	static Object canonicalize(Object value) {
+		if (value instanceof Map<?, ?>) {
+			TreeMap<String, Object> sorted = new TreeMap<>();
+			((Map<?, ?>) value).forEach((name, field) -> {
+				if (field != null) {
+					sorted.put(String.valueOf(name), canonicalize(field));
+				}
+			});
+			return sorted;
+		}
+		if (value instanceof List<?>) {
+			List<Object> items = new ArrayList<>();
+			((List<?>) value).forEach(item -> items.add(canonicalize(item)));
+			return items;
+		}
+		return value;
+	}
+
+}
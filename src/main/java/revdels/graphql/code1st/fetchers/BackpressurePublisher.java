@@ -0,0 +1,232 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import revdels.graphql.code1st.annotations.Backpressure;
+
+/**
+ * Decouples a subscriber from its upstream publisher. The upstream is read
+ * without limit; events the subscriber has not requested yet are kept in a
+ * bounded buffer that is handled according to the backpressure policy, so a
+ * slow client cannot make the server buffer events without limit.
+ */
+public class BackpressurePublisher<T> implements Publisher<T> {
+
+	private final Publisher<T> upstream;
+	private final Backpressure policy;
+	private final int bufferSize;
+
+	public BackpressurePublisher(Publisher<T> upstream, Backpressure policy, int bufferSize) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be positive");
+		}
+		this.upstream = upstream;
+		this.policy = policy;
+		this.bufferSize = bufferSize;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		upstream.subscribe(new BackpressureSubscriber<>(subscriber, policy, bufferSize));
+	}
+
+	/**
+	 * Subscribes to its upstream without limit and serves the downstream
+	 * demand from the policy-governed buffer.
+	 */
+	static class BackpressureSubscriber<T> implements Subscriber<T>, Subscription {
+
+		private final Subscriber<? super T> downstream;
+		private final Backpressure policy;
+		private final int bufferSize;
+		private final ArrayDeque<T> queue = new ArrayDeque<>();
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private volatile Subscription upstream;
+		private volatile boolean done;
+		private volatile boolean cancelled;
+		private Throwable error;
+
+		BackpressureSubscriber(Subscriber<? super T> downstream, Backpressure policy, int bufferSize) {
+			this.downstream = downstream;
+			this.policy = policy;
+			this.bufferSize = policy == Backpressure.LATEST ? 1 : bufferSize;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			upstream = subscription;
+			downstream.onSubscribe(this);
+			subscription.request(Long.MAX_VALUE);
+		}
+
+		@Override
+		public void onNext(T item) {
+			if (done || cancelled) {
+				return;
+			}
+			boolean overflow = false;
+			synchronized (queue) {
+				if (queue.size() < bufferSize) {
+					queue.offer(item);
+				}
+				else if (policy == Backpressure.BUFFER) {
+					queue.clear();
+					overflow = true;
+				}
+				else {
+					queue.poll();
+					queue.offer(item);
+				}
+			}
+			if (overflow) {
+				upstream.cancel();
+				onError(new IllegalStateException("Subscription buffer of " + bufferSize + " events overflowed"));
+				return;
+			}
+			drain();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			if (done) {
+				return;
+			}
+			error = throwable;
+			done = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			done = true;
+			drain();
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				// signalled through drain, serialized with onNext like any error
+				if (!done) {
+					error = new IllegalArgumentException("Rule 3.9: request must be positive");
+					done = true;
+				}
+				upstream.cancel();
+				clear();
+				drain();
+				return;
+			}
+			long current;
+			long next;
+			do {
+				current = requested.get();
+				next = current + n < 0 ? Long.MAX_VALUE : current + n;
+			} while (!requested.compareAndSet(current, next));
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			upstream.cancel();
+			if (wip.getAndIncrement() == 0) {
+				clear();
+			}
+		}
+
+		private void clear() {
+			synchronized (queue) {
+				queue.clear();
+			}
+		}
+
+		private T poll() {
+			synchronized (queue) {
+				return queue.poll();
+			}
+		}
+
+		private void drain() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				long demand = requested.get();
+				long emitted = 0;
+				while (emitted != demand) {
+					if (cancelled) {
+						clear();
+						return;
+					}
+					boolean terminated = done;
+					T item = poll();
+					if (terminated && item == null) {
+						terminate();
+						return;
+					}
+					if (item == null) {
+						break;
+					}
+					downstream.onNext(item);
+					emitted++;
+				}
+				if (emitted == demand) {
+					if (cancelled) {
+						clear();
+						return;
+					}
+					if (done && isEmpty()) {
+						terminate();
+						return;
+					}
+				}
+				if (emitted != 0 && demand != Long.MAX_VALUE) {
+					requested.addAndGet(-emitted);
+				}
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private boolean isEmpty() {
+			synchronized (queue) {
+				return queue.isEmpty();
+			}
+		}
+
+		private void terminate() {
+			cancelled = true;
+			if (error != null) {
+				downstream.onError(error);
+			}
+			else {
+				downstream.onComplete();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import org.dataloader.DataLoader;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Defers a batched field to the DataLoader registered under the field's
+ * coordinates, instead of calling the batch method once per parent.
+ */
+public class BatchDataFetcher implements DataFetcher<Object> {
+
+	private String loaderName;
+	private ArgumentPlan argumentPlan;
+
+	public BatchDataFetcher(String loaderName, ArgumentPlan argumentPlan) {
+		this.loaderName = loaderName;
+		this.argumentPlan = argumentPlan;
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) {
+		DataLoader<BatchKey, Object> loader = environment.getDataLoader(loaderName);
+		if (loader == null) {
+			throw new IllegalStateException("No DataLoader registered for " + loaderName
+					+ ", execute with GraphQLSchemaGenerator.newDataLoaderRegistry()");
+		}
+		return loader.load(new BatchKey(environment.getSource(), argumentPlan.bind(environment), environment.getArguments()));
+	}
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * DataLoader key of a batched field: the parent object plus the bound field
+ * arguments. Keys compare by the canonical form of the coerced GraphQL
+ * arguments, so input objects without equals still batch together.
+ */
+public class BatchKey {
+
+	private final Object source;
+	private final Object[] args;
+	private final Object argumentsKey;
+
+	public BatchKey(Object source, Object[] args, Map<String, Object> arguments) {
+		this.source = source;
+		this.args = args;
+		this.argumentsKey = Arguments.canonicalize(arguments);
+	}
+
+	public Object getSource() {
+		return source;
+	}
+
+	public Object[] getArgs() {
+		return args;
+	}
+
+	/**
+	 * Keys with equal arguments keys are loaded by one batch call.
+	 */
+	public Object getArgumentsKey() {
+		return argumentsKey;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof BatchKey)) {
+			return false;
+		}
+		BatchKey key = (BatchKey) other;
+		return Objects.equals(source, key.source) && argumentsKey.equals(key.argumentsKey);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(source) + argumentsKey.hashCode();
+	}
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Reads the Stream, Iterator or Iterable returned by a fetcher into a list
+ * of at most maxListSize items, and closes the stream, or an iterator or
+ * iterable that is AutoCloseable, when done or failed. The items are added
+ * as they are: lazy properties of the items are read by the fetchers of
+ * their own getters.
+ */
+public class BoundedListDataFetcher implements DataFetcher<Object> {
+
+	private DataFetcher<?> delegate;
+	private int maxListSize;
+
+	public BoundedListDataFetcher(DataFetcher<?> delegate, int maxListSize) {
+		this.delegate = delegate;
+		this.maxListSize = maxListSize;
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) throws Exception {
+		Object value = delegate.get(environment);
+		if (value instanceof CompletionStage<?>) {
+			return ((CompletionStage<?>) value).thenApply(this::read);
+		}
+		return read(value);
+	}
+
+	private Object read(Object value) {
+		if (value instanceof Stream<?>) {
+			try (Stream<?> stream = (Stream<?>) value) {
+				return read(stream.iterator());
+			}
+		}
+		if (value instanceof Collection<?> || !(value instanceof Iterable<?> || value instanceof Iterator<?>)) {
+			return value;
+		}
+		List<Object> items;
+		try {
+			items = read(value instanceof Iterator<?> ? (Iterator<?>) value : ((Iterable<?>) value).iterator());
+		}
+		catch (RuntimeException | Error e) {
+			// like try-with-resources: a failing close does not hide the failure
+			try {
+				close(value);
+			}
+			catch (RuntimeException closeFailure) {
+				e.addSuppressed(closeFailure);
+			}
+			throw e;
+		}
+		close(value);
+		return items;
+	}
+
+	private List<Object> read(Iterator<?> iterator) {
+		List<Object> items = new ArrayList<>();
+		while (iterator.hasNext()) {
+			if (items.size() == maxListSize) {
+				throw new IllegalStateException("List result exceeds the maximum size of " + maxListSize);
+			}
+			items.add(iterator.next());
+		}
+		return items;
+	}
+
+	private static void close(Object value) {
+		if (value instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) value).close();
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import revdels.graphql.code1st.annotations.GraphQLCacheable;
+
+/**
+ * Caches the results of a data fetcher by its arguments, least recently
+ * used first out. The key is the canonicalized map of the coerced
+ * arguments, so it does not depend on equals of the bound Java objects.
+ * When the method receives the selection set, e.g. as a Projection, its
+ * result depends on the selection too, and the key also holds the selected
+ * fields with their arguments.
+ * A miss is loaded by one caller; concurrent callers with the same key get
+ * a future of that result. Failures are not cached.
+ */
+public class CachingDataFetcher implements DataFetcher<Object> {
+
+	private final DataFetcher<?> delegate;
+	private final boolean selectionKeyed;
+	private final long ttlNanos;
+	private final int maxEntries;
+	private final long maxWeight;
+	private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long weight;
+
+	private static class Entry {
+		private final CompletableFuture<Object> result;
+		private long expires = Long.MAX_VALUE;
+		private long weight;
+
+		Entry(CompletableFuture<Object> result) {
+			this.result = result;
+		}
+
+		boolean isExpired(long now) {
+			return expires != Long.MAX_VALUE && now - expires >= 0;
+		}
+	}
+
+	public CachingDataFetcher(DataFetcher<?> delegate, GraphQLCacheable cacheable) {
+		this(delegate, cacheable, false);
+	}
+
+	public CachingDataFetcher(DataFetcher<?> delegate, GraphQLCacheable cacheable, boolean selectionKeyed) {
+		this.delegate = delegate;
+		this.selectionKeyed = selectionKeyed;
+		this.ttlNanos = cacheable.unit().toNanos(cacheable.ttl());
+		this.maxEntries = cacheable.maxEntries();
+		this.maxWeight = cacheable.maxWeight();
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) throws Exception {
+		Object arguments = Arguments.canonicalize(environment.getArguments());
+		Object key = selectionKeyed ? Arrays.asList(arguments, selectionKey(environment.getSelectionSet())) : arguments;
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		Entry entry;
+		synchronized (this) {
+			entry = entries.get(key);
+			if (entry != null && entry.isExpired(System.nanoTime())) {
+				remove(key);
+				entry = null;
+			}
+			if (entry == null) {
+				entries.put(key, new Entry(result));
+				evict();
+			}
+		}
+		if (entry != null) {
+			CompletableFuture<Object> cached = entry.result;
+			return cached.isDone() && !cached.isCompletedExceptionally() ? cached.join() : cached;
+		}
+		Object value;
+		try {
+			value = delegate.get(environment);
+		}
+		catch (Exception | Error e) {
+			complete(key, result, null, e);
+			throw e;
+		}
+		if (value instanceof CompletionStage<?>) {
+			((CompletionStage<?>) value).whenComplete((completed, error) -> complete(key, result, completed, error));
+			return result;
+		}
+		complete(key, result, value, null);
+		return value;
+	}
+
+	private static Set<List<Object>> selectionKey(DataFetchingFieldSelectionSet selectionSet) {
+		Set<List<Object>> fields = new HashSet<>();
+		for (SelectedField field : selectionSet.getFields()) {
+			fields.add(Arrays.asList(field.getQualifiedName(), Arguments.canonicalize(field.getArguments())));
+		}
+		return fields;
+	}
+
+	private void complete(Object key, CompletableFuture<Object> result, Object value, Throwable error) {
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.result == result) {
+				if (error != null) {
+					entries.remove(key);
+				}
+				else {
+					entry.expires = System.nanoTime() + ttlNanos;
+					entry.weight = weigh(value);
+					weight += entry.weight;
+					evict();
+				}
+			}
+		}
+		if (error != null) {
+			result.completeExceptionally(error);
+		}
+		else {
+			result.complete(value);
+		}
+	}
+
+	private void evict() {
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (eldest.hasNext() && (entries.size() > maxEntries || (maxWeight > 0 && weight > maxWeight))) {
+			weight -= eldest.next().weight;
+			eldest.remove();
+		}
+	}
+
+	private void remove(Object key) {
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			weight -= entry.weight;
+		}
+	}
+
+	private static long weigh(Object value) {
+		if (value instanceof Collection<?>) {
+			return ((Collection<?>) value).size();
+		}
+		if (value instanceof Map<?, ?>) {
+			return ((Map<?, ?>) value).size();
+		}
+		if (value != null && value.getClass().isArray()) {
+			return Array.getLength(value);
+		}
+		return 1;
+	}
+
+	/**
+	 * Drops the entries of the given arguments, for any selection.
+	 */
+	public synchronized void invalidate(Map<String, Object> arguments) {
+		Object key = Arguments.canonicalize(arguments);
+		if (!selectionKeyed) {
+			remove(key);
+			return;
+		}
+		Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Object, Entry> entry = iterator.next();
+			if (((List<?>) entry.getKey()).get(0).equals(key)) {
+				weight -= entry.getValue().weight;
+				iterator.remove();
+			}
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		entries.clear();
+		weight = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Binds a raw input object to an immutable Java input DTO, such as a record or
+ * a class with an all-args constructor annotated with @GraphQLInput. Field
+ * values are collected in constructor parameter order and the instance is
+ * created with a single constructor call.
+ */
+public class ConstructorInputObjectBinder implements InputObjectBinder {
+
+	private final Class<?> javaType;
+	private final ConstructorInvoker constructor;
+	private final Object[] defaults;
+	private final Map<String, Integer> indexes = new HashMap<>();
+	private final List<InputBinder> binders = new ArrayList<>();
+
+	public ConstructorInputObjectBinder(Constructor<?> constructor, AccessorFactory accessorFactory) {
+		this.javaType = constructor.getDeclaringClass();
+		this.constructor = accessorFactory.constructor(constructor);
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		this.defaults = new Object[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (parameterTypes[i].isPrimitive()) {
+				defaults[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+			}
+		}
+	}
+
+	/**
+	 * Adds the next constructor parameter; parameters must be added in
+	 * declaration order.
+	 */
+	public void addParameter(String fieldName, InputBinder binder) {
+		indexes.put(fieldName, binders.size());
+		binders.add(binder);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object bind(Object rawValue) {
+		if (rawValue == null) {
+			return null;
+		}
+		Object[] args = defaults.clone();
+		for (Entry<String, Object> field : ((Map<String, Object>) rawValue).entrySet()) {
+			int index = getIndex(field.getKey());
+			Object value = binders.get(index).bind(field.getValue());
+			if (value != null) {
+				args[index] = value;
+			}
+		}
+		return newInstance(args);
+	}
+
+	@Override
+	public Object bindFields(Map<String, Object> fieldValues) {
+		Object[] args = defaults.clone();
+		for (Entry<String, Object> field : fieldValues.entrySet()) {
+			if (field.getValue() != null) {
+				args[getIndex(field.getKey())] = field.getValue();
+			}
+		}
+		return newInstance(args);
+	}
+
+	private int getIndex(String fieldName) {
+		Integer index = indexes.get(fieldName);
+		if (index == null) {
+			throw new IllegalStateException("No constructor parameter for: " + fieldName);
+		}
+		return index;
+	}
+
+	private Object newInstance(Object[] args) {
+		try {
+			return constructor.newInstance(args);
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException("Construction failed: " + javaType.toString(), e);
+		}
+	}
+
+}
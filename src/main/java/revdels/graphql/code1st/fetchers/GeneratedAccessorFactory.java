@@ -0,0 +1,105 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Prefers the accessors generated by the annotation processor and falls back
+ * to another factory for classes that were not processed.
+ */
+public class GeneratedAccessorFactory implements AccessorFactory {
+
+	private static final ClassValue<GeneratedAccessors> GENERATED = new ClassValue<GeneratedAccessors>() {
+		@Override
+		protected GeneratedAccessors computeValue(Class<?> type) {
+			try {
+				Class<?> accessorsClass = Class.forName(accessorsClassName(type), true, type.getClassLoader());
+				return (GeneratedAccessors) accessorsClass.getConstructor().newInstance();
+			}
+			catch (ClassNotFoundException | LinkageError e) {
+				return null;
+			}
+			catch (ReflectiveOperationException | ClassCastException e) {
+				throw new IllegalStateException("Cannot instantiate generated accessors for " + type.getName(), e);
+			}
+		}
+	};
+
+	private final AccessorFactory fallback;
+
+	public GeneratedAccessorFactory(AccessorFactory fallback) {
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Returns the generated accessors of a class or null when there are none.
+	 */
+	public static GeneratedAccessors lookup(Class<?> type) {
+		if (type.isPrimitive() || type.isArray() || type.getClassLoader() == null) {
+			return null;
+		}
+		return GENERATED.get(type);
+	}
+
+	/**
+	 * Name of the generated class: <code>a.b.Outer$Inner</code> has its
+	 * accessors in <code>a.b.Outer_Inner_GraphQLAccessors</code>.
+	 */
+	static String accessorsClassName(Class<?> type) {
+		String name = type.getName();
+		int packageEnd = name.lastIndexOf('.') + 1;
+		return name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_') + GeneratedAccessors.CLASS_SUFFIX;
+	}
+
+	/**
+	 * Returns a generated invoker for the method or null when there is none.
+	 */
+	public static MethodInvoker invoker(Object target, Method method) {
+		GeneratedAccessors accessors = lookup(method.getDeclaringClass());
+		return accessors == null ? null : accessors.invoker(target, method.getName(), method.getParameterCount());
+	}
+
+	@Override
+	public ObjectInstantiator instantiator(Class<?> type) {
+		GeneratedAccessors accessors = lookup(type);
+		ObjectInstantiator instantiator = accessors == null ? null : accessors.instantiator();
+		return instantiator != null ? instantiator : fallback.instantiator(type);
+	}
+
+	@Override
+	public ConstructorInvoker constructor(Constructor<?> constructor) {
+		GeneratedAccessors accessors = lookup(constructor.getDeclaringClass());
+		ConstructorInvoker invoker = accessors == null ? null : accessors.constructor(constructor.getParameterCount());
+		return invoker != null ? invoker : fallback.constructor(constructor);
+	}
+
+	@Override
+	public PropertySetter setter(Method setter) {
+		GeneratedAccessors accessors = lookup(setter.getDeclaringClass());
+		PropertySetter propertySetter = accessors == null ? null : accessors.setter(setter.getName());
+		return propertySetter != null ? propertySetter : fallback.setter(setter);
+	}
+
+	@Override
+	public PropertyGetter getter(Method getter) {
+		GeneratedAccessors accessors = lookup(getter.getDeclaringClass());
+		PropertyGetter propertyGetter = accessors == null ? null : accessors.getter(getter.getName());
+		return propertyGetter != null ? propertyGetter : fallback.getter(getter);
+	}
+
+}
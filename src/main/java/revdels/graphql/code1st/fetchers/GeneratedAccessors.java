@@ -0,0 +1,39 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+/**
+ * Direct-call accessors for one class, generated at compile time by the
+ * graphql-code1st annotation processor. Lookups return null for members the
+ * processor did not generate, e.g. overloads with the same parameter count;
+ * the runtime then falls back to method handles.
+ */
+public interface GeneratedAccessors {
+
+	/** Appended to the flattened binary name of the class. */
+	String CLASS_SUFFIX = "_GraphQLAccessors";
+
+	MethodInvoker invoker(Object target, String method, int parameterCount);
+
+	PropertyGetter getter(String method);
+
+	PropertySetter setter(String method);
+
+	ConstructorInvoker constructor(int parameterCount);
+
+	ObjectInstantiator instantiator();
+
+}
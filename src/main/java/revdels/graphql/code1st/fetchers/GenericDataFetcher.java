@@ -15,53 +15,25 @@
  */
 package revdels.graphql.code1st.fetchers;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.List;
-
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
-import graphql.schema.GraphQLArgument;
-import revdels.graphql.code1st.schemagen.GeneratedTypes;
 
 public class GenericDataFetcher implements DataFetcher<Object> {
 
-	private Object object;
-	private Method method;
-	private GeneratedTypes generatedTypes;
+	private ArgumentPlan argumentPlan;
+	private MethodInvoker invoker;
 
-	public GenericDataFetcher(GeneratedTypes generatedTypes, Object object, Method method) {
-		this.generatedTypes = generatedTypes;
-		this.object = object;
-		this.method = method;
+	public GenericDataFetcher(ArgumentPlan argumentPlan, MethodInvoker invoker) {
+		this.argumentPlan = argumentPlan;
+		this.invoker = invoker;
 	}
 
-	public GenericDataFetcher(GeneratedTypes generatedTypes, Method method) {
-		this(generatedTypes, null, method);
+	public MethodInvoker getInvoker() {
+		return invoker;
 	}
 
 	@Override
 	public Object get(DataFetchingEnvironment environment) throws Exception {
-		
-		Object source = object != null ? object : environment.getSource();
-		List<GraphQLArgument> argDefs = environment.getFieldDefinition().getArguments();
-		GraphQLArgumentFetcher argFetcher = new GraphQLArgumentFetcher(generatedTypes, environment);
-		Object[] args = new Object[argDefs.size()];
-		for (int i = 0; i < args.length; i++) {
-			GraphQLArgument argDef = argDefs.get(i);
-			argDef.accept(null, argFetcher);
-			args[i] = argFetcher.getValue();
-		}
-		try {
-			return method.invoke(source,  args);
-		}
-		catch (InvocationTargetException e) {
-			 Throwable cause = e.getTargetException();
-			if (cause instanceof Exception) {
-				throw (Exception) cause;
-			}
-			throw e;
-		}
-	
+		return invoker.invoke(environment.getSource(), argumentPlan.bind(environment));
 	}
 }
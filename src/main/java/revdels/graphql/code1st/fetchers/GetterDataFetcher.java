@@ -0,0 +1,39 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Fetches a property of the source object through a precompiled getter,
+ * replacing graphql-java's name based PropertyDataFetcher.
+ */
+public class GetterDataFetcher implements DataFetcher<Object> {
+
+	private PropertyGetter getter;
+
+	public GetterDataFetcher(PropertyGetter getter) {
+		this.getter = getter;
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) throws Exception {
+		Object source = environment.getSource();
+		return source == null ? null : getter.get(source);
+	}
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Spins a dedicated accessor class per constructor, setter and getter with
+ * {@link LambdaMetafactory}. Each accessor is a direct, statically typed call
+ * to the DTO method, which the JIT can inline like hand written code; on
+ * JDK 15+ these classes are hidden classes. All-args constructors cannot be
+ * spun this way and use a spread method handle.
+ */
+public class LambdaAccessorFactory implements AccessorFactory {
+
+	private static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+	private final AccessorFactory methodHandleAccessors = new MethodHandleAccessorFactory();
+
+	@Override
+	public ObjectInstantiator instantiator(Class<?> type) {
+		MethodHandle constructor;
+		try {
+			constructor = lookup.unreflectConstructor(type.getConstructor());
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalStateException("No accessible no-arg constructor: " + type.toString(), e);
+		}
+		return (ObjectInstantiator) spin(ObjectInstantiator.class, "newInstance", INSTANTIATOR_TYPE,
+				constructor, MethodType.methodType(type));
+	}
+
+	@Override
+	public ConstructorInvoker constructor(Constructor<?> constructor) {
+		return methodHandleAccessors.constructor(constructor);
+	}
+
+	@Override
+	public PropertySetter setter(Method setter) {
+		MethodType instantiatedType = MethodType.methodType(void.class,
+				setter.getDeclaringClass(), boxed(setter.getParameterTypes()[0]));
+		return (PropertySetter) spin(PropertySetter.class, "set", SETTER_TYPE, unreflect(setter), instantiatedType);
+	}
+
+	@Override
+	public PropertyGetter getter(Method getter) {
+		MethodType instantiatedType = MethodType.methodType(boxed(getter.getReturnType()), getter.getDeclaringClass());
+		return (PropertyGetter) spin(PropertyGetter.class, "get", GETTER_TYPE, unreflect(getter), instantiatedType);
+	}
+
+	private Object spin(Class<?> accessorType, String methodName, MethodType erasedType,
+			MethodHandle implementation, MethodType instantiatedType) {
+		try {
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, methodName,
+					MethodType.methodType(accessorType), erasedType, implementation, instantiatedType);
+			return callSite.getTarget().invoke();
+		}
+		catch (LambdaConversionException e) {
+			throw new IllegalStateException("Cannot generate accessor for: " + implementation.toString(), e);
+		}
+		catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	private MethodHandle unreflect(Method method) {
+		try {
+			return lookup.unreflect(method);
+		}
+		catch (IllegalAccessException e) {
+			throw new IllegalStateException("Method not accessible: " + method.toString(), e);
+		}
+	}
+
+	private static Class<?> boxed(Class<?> type) {
+		return MethodType.methodType(type).wrap().returnType();
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.dataloader.BatchLoader;
+
+/**
+ * Loads a batch of keys with one call of a static batch method per distinct
+ * set of field arguments.
+ */
+public class MethodBatchLoader implements BatchLoader<BatchKey, Object> {
+
+	private final MethodInvoker invoker;
+
+	public MethodBatchLoader(MethodInvoker invoker) {
+		this.invoker = invoker;
+	}
+
+	@Override
+	public CompletionStage<List<Object>> load(List<BatchKey> keys) {
+		try {
+			return CompletableFuture.completedFuture(loadNow(keys));
+		}
+		catch (Exception e) {
+			CompletableFuture<List<Object>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	private List<Object> loadNow(List<BatchKey> keys) throws Exception {
+		Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < keys.size(); i++) {
+			groups.computeIfAbsent(keys.get(i).getArgumentsKey(), argumentsKey -> new ArrayList<>()).add(i);
+		}
+		Object[] values = new Object[keys.size()];
+		for (Entry<Object, List<Integer>> group : groups.entrySet()) {
+			List<Object> parents = new ArrayList<>(group.getValue().size());
+			for (int index : group.getValue()) {
+				parents.add(keys.get(index).getSource());
+			}
+			Object[] bound = keys.get(group.getValue().get(0)).getArgs();
+			Object[] args = new Object[bound.length + 1];
+			args[0] = parents;
+			System.arraycopy(bound, 0, args, 1, bound.length);
+			distribute(invoker.invoke(null, args), parents, group.getValue(), values);
+		}
+		return Arrays.asList(values);
+	}
+
+	private void distribute(Object result, List<Object> parents, List<Integer> indexes, Object[] values) {
+		if (result instanceof Map<?, ?>) {
+			Map<?, ?> resultMap = (Map<?, ?>) result;
+			for (int i = 0; i < parents.size(); i++) {
+				values[indexes.get(i)] = resultMap.get(parents.get(i));
+			}
+		}
+		else if (result instanceof List<?> && ((List<?>) result).size() == parents.size()) {
+			List<?> resultList = (List<?>) result;
+			for (int i = 0; i < parents.size(); i++) {
+				values[indexes.get(i)] = resultList.get(i);
+			}
+		}
+		else {
+			throw new IllegalStateException("Batch method must return a Map or a List with one value per parent");
+		}
+	}
+
+}
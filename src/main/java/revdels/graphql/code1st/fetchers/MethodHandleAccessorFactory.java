@@ -0,0 +1,120 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+public class MethodHandleAccessorFactory implements AccessorFactory {
+
+	private static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	@Override
+	public ObjectInstantiator instantiator(Class<?> type) {
+		MethodHandle constructor;
+		try {
+			constructor = lookup.unreflectConstructor(type.getConstructor()).asType(INSTANTIATOR_TYPE);
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalStateException("No accessible no-arg constructor: " + type.toString(), e);
+		}
+		return () -> {
+			try {
+				return (Object) constructor.invokeExact();
+			}
+			catch (Exception | Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		};
+	}
+
+	@Override
+	public ConstructorInvoker constructor(Constructor<?> constructor) {
+		MethodHandle handle;
+		try {
+			handle = lookup.unreflectConstructor(constructor)
+					.asSpreader(Object[].class, constructor.getParameterCount())
+					.asType(CONSTRUCTOR_TYPE);
+		}
+		catch (IllegalAccessException e) {
+			throw new IllegalStateException("Constructor not accessible: " + constructor.toString(), e);
+		}
+		return args -> {
+			try {
+				return (Object) handle.invokeExact(args);
+			}
+			catch (Exception | Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		};
+	}
+
+	@Override
+	public PropertySetter setter(Method setter) {
+		MethodHandle handle = unreflect(setter).asType(SETTER_TYPE);
+		return (target, value) -> {
+			try {
+				handle.invokeExact(target, value);
+			}
+			catch (Exception | Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		};
+	}
+
+	@Override
+	public PropertyGetter getter(Method getter) {
+		MethodHandle handle = unreflect(getter).asType(GETTER_TYPE);
+		return source -> {
+			try {
+				return (Object) handle.invokeExact(source);
+			}
+			catch (Exception | Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		};
+	}
+
+	private MethodHandle unreflect(Method method) {
+		try {
+			return lookup.unreflect(method);
+		}
+		catch (IllegalAccessException e) {
+			throw new IllegalStateException("Method not accessible: " + method.toString(), e);
+		}
+	}
+
+}
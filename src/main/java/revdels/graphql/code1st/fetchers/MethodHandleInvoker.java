@@ -0,0 +1,71 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a method through a method handle that is resolved, bound to its
+ * controller (if any) and adapted to a generic signature once, so the call site
+ * does no access checks, no varargs copying and no exception wrapping.
+ */
+public class MethodHandleInvoker implements MethodInvoker {
+
+	private static final MethodType BOUND_TYPE = MethodType.methodType(Object.class, Object[].class);
+	private static final MethodType UNBOUND_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private final MethodHandle handle;
+	private final boolean bound;
+
+	public MethodHandleInvoker(Object target, Method method) {
+		MethodHandle methodHandle;
+		try {
+			methodHandle = MethodHandles.lookup().unreflect(method);
+		}
+		catch (IllegalAccessException e) {
+			throw new IllegalStateException("Method not accessible: " + method.toString(), e);
+		}
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		if (target != null && !isStatic) {
+			methodHandle = methodHandle.bindTo(target);
+		}
+		this.bound = target != null || isStatic;
+		this.handle = methodHandle
+				.asSpreader(Object[].class, method.getParameterCount())
+				.asType(bound ? BOUND_TYPE : UNBOUND_TYPE);
+	}
+
+	@Override
+	public Object invoke(Object source, Object[] args) throws Exception {
+		try {
+			if (bound) {
+				return (Object) handle.invokeExact(args);
+			}
+			return (Object) handle.invokeExact(source, args);
+		}
+		catch (Exception | Error e) {
+			throw e;
+		}
+		catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+}
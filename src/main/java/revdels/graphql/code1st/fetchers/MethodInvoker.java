@@ -0,0 +1,27 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+/**
+ * Calls the Java method behind a GraphQL field. Invokers that are bound to a
+ * controller ignore the source object; unbound invokers call the method on it.
+ * Exceptions thrown by the method propagate unwrapped.
+ */
+public interface MethodInvoker {
+
+	Object invoke(Object source, Object[] args) throws Exception;
+
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.concurrent.CompletionStage;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import revdels.graphql.code1st.metrics.FieldRecorder;
+
+/**
+ * Records the latency and failure of a data fetcher. For asynchronous
+ * results the latency runs until the result completes.
+ */
+public class MetricsDataFetcher implements DataFetcher<Object> {
+
+	private DataFetcher<?> delegate;
+	private FieldRecorder recorder;
+
+	public MetricsDataFetcher(DataFetcher<?> delegate, FieldRecorder recorder) {
+		this.delegate = delegate;
+		this.recorder = recorder;
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment environment) throws Exception {
+		long start = System.nanoTime();
+		Object result;
+		try {
+			result = delegate.get(environment);
+		}
+		catch (Exception | Error e) {
+			recorder.record(System.nanoTime() - start, true);
+			throw e;
+		}
+		if (result instanceof CompletionStage<?>) {
+			return ((CompletionStage<?>) result).whenComplete(
+					(value, error) -> recorder.record(System.nanoTime() - start, error != null));
+		}
+		recorder.record(System.nanoTime() - start, false);
+		return result;
+	}
+
+}
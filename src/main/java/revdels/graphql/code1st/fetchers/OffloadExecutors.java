@@ -0,0 +1,70 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class OffloadExecutors {
+
+	private OffloadExecutors() {}
+
+	/**
+	 * Returns a virtual-thread-per-task executor when the JDK provides one
+	 * (JDK 21+), otherwise a bounded pool of daemon platform threads with a
+	 * bounded queue. Either way the caller owns the executor and shuts it
+	 * down when the fetchers using it are discarded.
+	 */
+	public static ExecutorService newDefaultExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException e) {
+			int maxThreads = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+			return newPlatformExecutor(maxThreads, 64 * maxThreads);
+		}
+	}
+
+	/**
+	 * Pool of daemon platform threads. Once all threads are busy and
+	 * queueCapacity tasks wait, further tasks are rejected with a
+	 * RejectedExecutionException, which fails the field instead of piling
+	 * up requests.
+	 */
+	public static ExecutorService newPlatformExecutor(int maxThreads, int queueCapacity) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new OffloadThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static class OffloadThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "graphql-offload-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
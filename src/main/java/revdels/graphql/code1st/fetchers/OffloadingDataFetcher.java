@@ -0,0 +1,66 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Runs a blocking data fetcher on an executor and hands graphql-java a future,
+ * so sibling fields can do their blocking I/O in parallel.
+ */
+public class OffloadingDataFetcher implements DataFetcher<CompletableFuture<Object>> {
+
+	private DataFetcher<?> delegate;
+	private Executor executor;
+
+	public OffloadingDataFetcher(DataFetcher<?> delegate, Executor executor) {
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Object> get(DataFetchingEnvironment environment) {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				Object value = delegate.get(environment);
+				if (value instanceof CompletionStage<?>) {
+					((CompletionStage<?>) value).whenComplete((completed, error) -> {
+						if (error != null) {
+							result.completeExceptionally(error);
+						}
+						else {
+							result.complete(completed);
+						}
+					});
+				}
+				else {
+					result.complete(value);
+				}
+			}
+			catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import graphql.schema.DataFetchingEnvironment;
+import revdels.graphql.code1st.api.PageRequest;
+
+/**
+ * Injects the first/after/last/before arguments of a paged field as a
+ * PageRequest, with the cursors decoded and the size bounded.
+ */
+public class PageRequestBinder implements ParameterBinder {
+
+	private int maxPageSize;
+
+	public PageRequestBinder(int maxPageSize) {
+		this.maxPageSize = maxPageSize;
+	}
+
+	@Override
+	public Object bind(DataFetchingEnvironment environment) {
+		return new PageRequest(
+				environment.getArgument("first"),
+				PageRequest.decodeCursor(environment.getArgument("after")),
+				environment.getArgument("last"),
+				PageRequest.decodeCursor(environment.getArgument("before")),
+				maxPageSize);
+	}
+
+}
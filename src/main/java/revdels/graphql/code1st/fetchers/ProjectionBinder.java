@@ -0,0 +1,97 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.schema.SelectedField;
+import revdels.graphql.code1st.api.Projection;
+import revdels.graphql.code1st.schemagen.GeneratedTypes;
+
+/**
+ * Injects the selection set of a field as a Projection, with the GraphQL
+ * field names mapped back to the Java property names. For a field returning
+ * a Page the paths are those of the nodes: the edges, cursors and pageInfo
+ * of the generated connection are not properties of the items.
+ */
+public class ProjectionBinder implements ParameterBinder {
+
+	private GeneratedTypes generatedTypes;
+	private boolean connection;
+
+	public ProjectionBinder(GeneratedTypes generatedTypes) {
+		this(generatedTypes, false);
+	}
+
+	public ProjectionBinder(GeneratedTypes generatedTypes, boolean connection) {
+		this.generatedTypes = generatedTypes;
+		this.connection = connection;
+	}
+
+	@Override
+	public Object bind(DataFetchingEnvironment environment) {
+		Set<String> paths = new LinkedHashSet<>();
+		if (connection) {
+			for (SelectedField node : nodes(environment.getSelectionSet())) {
+				GraphQLNamedType nodeType = GraphQLTypeUtil.unwrapAll(node.getFieldDefinition().getType());
+				collect(node.getSelectionSet(), nodeType.getName(), "", paths);
+			}
+		}
+		else {
+			GraphQLNamedType type = GraphQLTypeUtil.unwrapAll(environment.getFieldType());
+			collect(environment.getSelectionSet(), type.getName(), "", paths);
+		}
+		return new Projection(paths);
+	}
+
+	/**
+	 * The node fields below the edges fields of a connection, one per
+	 * selection of each, e.g. when aliased.
+	 */
+	private static List<SelectedField> nodes(DataFetchingFieldSelectionSet selectionSet) {
+		List<SelectedField> nodes = new ArrayList<>();
+		for (SelectedField edgesField : selectionSet.getImmediateFields()) {
+			if (edgesField.getName().equals("edges")) {
+				for (SelectedField nodeField : edgesField.getSelectionSet().getImmediateFields()) {
+					if (nodeField.getName().equals("node")) {
+						nodes.add(nodeField);
+					}
+				}
+			}
+		}
+		return nodes;
+	}
+
+	private void collect(DataFetchingFieldSelectionSet selectionSet, String typeName, String prefix, Set<String> paths) {
+		for (SelectedField field : selectionSet.getImmediateFields()) {
+			if (field.getName().startsWith("__")) {
+				continue;
+			}
+			String path = prefix + generatedTypes.getPropertyName(typeName, field.getName());
+			paths.add(path);
+			GraphQLNamedType fieldType = GraphQLTypeUtil.unwrapAll(field.getFieldDefinition().getType());
+			collect(field.getSelectionSet(), fieldType.getName(), path + ".", paths);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public class ReflectionAccessorFactory implements AccessorFactory {
+
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	@Override
+	public ObjectInstantiator instantiator(Class<?> type) {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getConstructor();
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalStateException("No public no-arg constructor: " + type.toString(), e);
+		}
+		return () -> newInstance(constructor, NO_ARGUMENTS);
+	}
+
+	@Override
+	public ConstructorInvoker constructor(Constructor<?> constructor) {
+		return args -> newInstance(constructor, args);
+	}
+
+	@Override
+	public PropertySetter setter(Method setter) {
+		MethodInvoker invoker = new ReflectionMethodInvoker(null, setter);
+		return (target, value) -> invoker.invoke(target, new Object[] { value });
+	}
+
+	@Override
+	public PropertyGetter getter(Method getter) {
+		MethodInvoker invoker = new ReflectionMethodInvoker(null, getter);
+		return source -> invoker.invoke(source, NO_ARGUMENTS);
+	}
+
+	private static Object newInstance(Constructor<?> constructor, Object[] args) throws Exception {
+		try {
+			return constructor.newInstance(args);
+		}
+		catch (InvocationTargetException e) {
+			Throwable cause = e.getTargetException();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		}
+	}
+
+}
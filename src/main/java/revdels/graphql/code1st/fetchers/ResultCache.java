@@ -0,0 +1,66 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The result caches of the @GraphQLCacheable query fields of a generated
+ * schema, by field name, e.g. to invalidate them from a mutation.
+ */
+public class ResultCache {
+
+	private final Map<String, CachingDataFetcher> fields = new ConcurrentHashMap<>();
+
+	public void register(String fieldName, CachingDataFetcher fetcher) {
+		fields.put(fieldName, fetcher);
+	}
+
+	/**
+	 * Drops all cached results of a field.
+	 */
+	public void invalidate(String fieldName) {
+		CachingDataFetcher fetcher = fields.get(fieldName);
+		if (fetcher != null) {
+			fetcher.invalidateAll();
+		}
+	}
+
+	/**
+	 * Drops the cached results of a field for the given arguments, as named
+	 * in the schema.
+	 */
+	public void invalidate(String fieldName, Map<String, Object> arguments) {
+		CachingDataFetcher fetcher = fields.get(fieldName);
+		if (fetcher != null) {
+			fetcher.invalidate(arguments);
+		}
+	}
+
+	public void invalidateAll() {
+		fields.values().forEach(CachingDataFetcher::invalidateAll);
+	}
+
+	/**
+	 * Number of cached results of a field.
+	 */
+	public int size(String fieldName) {
+		CachingDataFetcher fetcher = fields.get(fieldName);
+		return fetcher == null ? 0 : fetcher.size();
+	}
+
+}
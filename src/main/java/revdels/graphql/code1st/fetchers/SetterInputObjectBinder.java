@@ -0,0 +1,112 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Binds a raw input object (a map of field values) to a new instance of a Java
+ * input DTO with a no-arg constructor and setters. The constructor and setters
+ * are resolved to accessors once, when the input type is generated; fields are
+ * added while the type itself is being generated, so recursive input types can
+ * refer to their own binder.
+ */
+public class SetterInputObjectBinder implements InputObjectBinder {
+
+	private final Class<?> javaType;
+	private final AccessorFactory accessorFactory;
+	private final ObjectInstantiator instantiator;
+	private final Map<String, Property> properties = new HashMap<>();
+
+	private static class Property {
+		private final String setterName;
+		private final PropertySetter setter;
+		private final InputBinder binder;
+
+		Property(String setterName, PropertySetter setter, InputBinder binder) {
+			this.setterName = setterName;
+			this.setter = setter;
+			this.binder = binder;
+		}
+	}
+
+	public SetterInputObjectBinder(Class<?> javaType, AccessorFactory accessorFactory) {
+		this.javaType = javaType;
+		this.accessorFactory = accessorFactory;
+		this.instantiator = accessorFactory.instantiator(javaType);
+	}
+
+	public void addProperty(String fieldName, Method setter, InputBinder binder) {
+		properties.put(fieldName, new Property(setter.getName(), accessorFactory.setter(setter), binder));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object bind(Object rawValue) {
+		if (rawValue == null) {
+			return null;
+		}
+		Object value = newInstance();
+		for (Entry<String, Object> field : ((Map<String, Object>) rawValue).entrySet()) {
+			Property property = getProperty(field.getKey());
+			setAttribute(value, property, property.binder.bind(field.getValue()));
+		}
+		return value;
+	}
+
+	@Override
+	public Object bindFields(Map<String, Object> fieldValues) {
+		Object value = newInstance();
+		for (Entry<String, Object> field : fieldValues.entrySet()) {
+			setProperty(value, field.getKey(), field.getValue());
+		}
+		return value;
+	}
+
+	public Object newInstance() {
+		try {
+			return instantiator.newInstance();
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException("Construction failed: " + javaType.toString(), e);
+		}
+	}
+
+	public void setProperty(Object value, String fieldName, Object fieldValue) {
+		setAttribute(value, getProperty(fieldName), fieldValue);
+	}
+
+	private Property getProperty(String fieldName) {
+		Property property = properties.get(fieldName);
+		if (property == null) {
+			throw new IllegalStateException("No setter for: " + fieldName);
+		}
+		return property;
+	}
+
+	private void setAttribute(Object value, Property property, Object fieldValue) {
+		try {
+			property.setter.set(value, fieldValue);
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException("Setter failed: " + property.setterName, e);
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import revdels.graphql.code1st.annotations.Backpressure;
+import revdels.graphql.code1st.fetchers.BackpressurePublisher.BackpressureSubscriber;
+
+/**
+ * Registry of shared subscription upstreams. Subscribers to the same field
+ * coordinate with the same arguments share one upstream publisher, which is
+ * opened by the first subscriber and cancelled when the last one leaves.
+ */
+public class SharedSubscriptions {
+
+	private final ConcurrentHashMap<List<Object>, SharedPublisher> upstreams = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a publisher that joins the shared upstream for the key, opening
+	 * it from the source when nobody is subscribed yet. Every subscriber gets
+	 * its own buffer governed by the backpressure policy.
+	 */
+	public Publisher<Object> publisher(String coordinate, Map<String, Object> arguments,
+			Callable<Publisher<Object>> source, Backpressure policy, int bufferSize) {
+		List<Object> key = Arrays.asList(coordinate, Arguments.canonicalize(arguments));
+		return subscriber -> {
+			BackpressureSubscriber<Object> member = new BackpressureSubscriber<>(subscriber, policy, bufferSize);
+			MemberSubscription membership = new MemberSubscription(member);
+			member.onSubscribe(membership);
+			SharedPublisher shared;
+			do {
+				shared = upstreams.computeIfAbsent(key, k -> new SharedPublisher(k, source));
+			} while (!shared.add(member));
+			membership.join(shared);
+		};
+	}
+
+	/**
+	 * Number of upstreams currently open.
+	 */
+	public int size() {
+		return upstreams.size();
+	}
+
+	/**
+	 * The upstream side of a member; the member reads it without limit and
+	 * leaves the shared upstream when cancelled.
+	 */
+	private static class MemberSubscription implements Subscription {
+
+		private final Subscriber<Object> member;
+		private volatile SharedPublisher shared;
+		private volatile boolean cancelled;
+
+		MemberSubscription(Subscriber<Object> member) {
+			this.member = member;
+		}
+
+		void join(SharedPublisher shared) {
+			this.shared = shared;
+			if (cancelled) {
+				shared.remove(member);
+			}
+		}
+
+		@Override
+		public void request(long n) {
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			SharedPublisher current = shared;
+			if (current != null) {
+				current.remove(member);
+			}
+		}
+	}
+
+	/**
+	 * Reference-counted fan-out over one upstream subscription.
+	 */
+	private class SharedPublisher implements Subscriber<Object> {
+
+		private final List<Object> key;
+		private final Callable<Publisher<Object>> source;
+		private final Set<Subscriber<Object>> members = ConcurrentHashMap.newKeySet();
+		private int count;
+		private boolean connected;
+		private boolean disposed;
+		private Subscription upstream;
+
+		SharedPublisher(List<Object> key, Callable<Publisher<Object>> source) {
+			this.key = key;
+			this.source = source;
+		}
+
+		/**
+		 * Adds a member, or returns false when this upstream has already been
+		 * torn down and a new one must be opened.
+		 */
+		boolean add(Subscriber<Object> member) {
+			boolean connect;
+			synchronized (this) {
+				if (disposed) {
+					return false;
+				}
+				members.add(member);
+				count++;
+				connect = !connected;
+				connected = true;
+			}
+			if (connect) {
+				connect();
+			}
+			return true;
+		}
+
+		void remove(Subscriber<Object> member) {
+			Subscription cancel = null;
+			synchronized (this) {
+				if (!members.remove(member)) {
+					return;
+				}
+				if (--count == 0 && !disposed) {
+					dispose();
+					cancel = upstream;
+				}
+			}
+			if (cancel != null) {
+				cancel.cancel();
+			}
+		}
+
+		private void connect() {
+			Publisher<Object> publisher;
+			try {
+				publisher = source.call();
+			}
+			catch (Exception e) {
+				onError(e);
+				return;
+			}
+			if (publisher == null) {
+				onComplete();
+				return;
+			}
+			publisher.subscribe(this);
+		}
+
+		/**
+		 * Called holding the lock; later subscribers open a new upstream.
+		 */
+		private void dispose() {
+			disposed = true;
+			upstreams.remove(key, this);
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			boolean cancel;
+			synchronized (this) {
+				upstream = subscription;
+				cancel = disposed;
+			}
+			if (cancel) {
+				subscription.cancel();
+			}
+			else {
+				subscription.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(Object item) {
+			for (Subscriber<Object> member : members) {
+				member.onNext(item);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			synchronized (this) {
+				dispose();
+			}
+			for (Subscriber<Object> member : members) {
+				member.onError(throwable);
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			synchronized (this) {
+				dispose();
+			}
+			for (Subscriber<Object> member : members) {
+				member.onComplete();
+			}
+		}
+	}
+
+}
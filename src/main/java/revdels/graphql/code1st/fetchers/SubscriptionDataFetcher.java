@@ -0,0 +1,81 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import java.util.concurrent.Flow;
+
+import org.reactivestreams.Publisher;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import revdels.graphql.code1st.annotations.Backpressure;
+
+/**
+ * Adapts the publisher returned by a subscription method to a Reactive
+ * Streams Publisher and applies the subscription's backpressure policy.
+ */
+public class SubscriptionDataFetcher implements DataFetcher<Publisher<Object>> {
+
+	private DataFetcher<?> delegate;
+	private Backpressure policy;
+	private int bufferSize;
+
+	private SharedSubscriptions sharedSubscriptions;
+	private String coordinate;
+
+	public SubscriptionDataFetcher(DataFetcher<?> delegate, Backpressure policy, int bufferSize) {
+		this.delegate = delegate;
+		this.policy = policy;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Shared subscriptions invoke the method once per distinct argument set
+	 * and fan its events out to every subscriber. As subscribers cannot be
+	 * slowed down individually, NONE falls back to BUFFER here.
+	 */
+	public SubscriptionDataFetcher(DataFetcher<?> delegate, Backpressure policy, int bufferSize,
+			SharedSubscriptions sharedSubscriptions, String coordinate) {
+		this(delegate, policy == Backpressure.NONE ? Backpressure.BUFFER : policy, bufferSize);
+		this.sharedSubscriptions = sharedSubscriptions;
+		this.coordinate = coordinate;
+	}
+
+	@Override
+	public Publisher<Object> get(DataFetchingEnvironment environment) throws Exception {
+		if (sharedSubscriptions != null) {
+			return sharedSubscriptions.publisher(coordinate, environment.getArguments(),
+					() -> toPublisher(delegate.get(environment)), policy, bufferSize);
+		}
+		Publisher<Object> publisher = toPublisher(delegate.get(environment));
+		if (publisher == null || policy == Backpressure.NONE) {
+			return publisher;
+		}
+		return new BackpressurePublisher<>(publisher, policy, bufferSize);
+	}
+
+	@SuppressWarnings("unchecked")
+	static Publisher<Object> toPublisher(Object result) {
+		if (result == null || result instanceof Publisher<?>) {
+			return (Publisher<Object>) result;
+		}
+		if (result instanceof Flow.Publisher<?>) {
+			return new FlowPublisherAdapter<>((Flow.Publisher<Object>) result);
+		}
+		throw new IllegalStateException("Subscription must return a Publisher: " + result.getClass().getName());
+	}
+
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.fetchers;
+
+import graphql.TrivialDataFetcher;
+
+/**
+ * Getter fetcher marked as trivial, so instrumentation (e.g. tracing) skips it
+ * just like graphql-java's own PropertyDataFetcher.
+ */
+public class TrivialGetterDataFetcher extends GetterDataFetcher implements TrivialDataFetcher<Object> {
+
+	public TrivialGetterDataFetcher(PropertyGetter getter) {
+		super(getter);
+	}
+
+}
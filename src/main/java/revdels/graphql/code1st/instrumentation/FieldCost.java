@@ -0,0 +1,101 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.instrumentation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import revdels.graphql.code1st.annotations.GraphQLField;
+import revdels.graphql.code1st.annotations.GraphQLMutation;
+import revdels.graphql.code1st.annotations.GraphQLQuery;
+
+/**
+ * The declared cost of a field: its own cost and the argument whose value
+ * multiplies the cost of the field and its selections.
+ */
+public final class FieldCost {
+
+	public static final FieldCost DEFAULT = new FieldCost(1, "");
+
+	private final int cost;
+	private final String multiplier;
+
+	public FieldCost(int cost, String multiplier) {
+		this.cost = cost;
+		this.multiplier = multiplier;
+	}
+
+	/**
+	 * Returns the cost declared by the @GraphQLQuery, @GraphQLMutation or
+	 * @GraphQLField annotation of a method, or null when it has the default
+	 * cost.
+	 */
+	public static FieldCost of(Method method) {
+		FieldCost fieldCost = DEFAULT;
+		GraphQLQuery query = method.getAnnotation(GraphQLQuery.class);
+		GraphQLMutation mutation = method.getAnnotation(GraphQLMutation.class);
+		GraphQLField field = method.getAnnotation(GraphQLField.class);
+		if (query != null) {
+			fieldCost = new FieldCost(query.cost(), query.multiplier());
+		}
+		else if (mutation != null) {
+			fieldCost = new FieldCost(mutation.cost(), mutation.multiplier());
+		}
+		else if (field != null) {
+			fieldCost = new FieldCost(field.cost(), field.multiplier());
+		}
+		return fieldCost.isDefault() ? null : fieldCost;
+	}
+
+	public int getCost() {
+		return cost;
+	}
+
+	public String getMultiplier() {
+		return multiplier;
+	}
+
+	boolean isDefault() {
+		return cost == DEFAULT.cost && multiplier.isEmpty();
+	}
+
+	/**
+	 * The cost of the field given its arguments and the cost of its
+	 * selections. A missing or negative multiplier argument counts as 1. The
+	 * cost saturates at Long.MAX_VALUE instead of overflowing.
+	 */
+	public long cost(Map<String, Object> arguments, long selectionsCost) {
+		try {
+			long total = Math.addExact(cost, selectionsCost);
+			if (!multiplier.isEmpty()) {
+				Object value = arguments.get(multiplier);
+				if (value instanceof Number && ((Number) value).longValue() >= 0) {
+					total = Math.multiplyExact(total, ((Number) value).longValue());
+				}
+			}
+			return total;
+		}
+		catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return multiplier.isEmpty() ? String.valueOf(cost) : cost + " * " + multiplier;
+	}
+
+}
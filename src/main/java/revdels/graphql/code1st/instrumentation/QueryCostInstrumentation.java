@@ -0,0 +1,102 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.instrumentation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.schema.FieldCoordinates;
+
+/**
+ * Rejects operations whose cost exceeds a budget. The cost is computed for
+ * every execution from the document and the coerced variables, before any
+ * data fetcher runs, so documents served from a PreparsedDocumentProvider
+ * (which skip validation) are checked too: a field costs its declared cost
+ * (1 when not declared) plus the cost of its selections, times the value of
+ * its multiplier argument.
+ * Use GraphQLSchemaGenerator.newQueryCostInstrumentation to create one for
+ * a generated schema.
+ */
+public class QueryCostInstrumentation extends SimpleInstrumentation {
+
+	private final int maxCost;
+	private final Map<FieldCoordinates, FieldCost> fieldCosts;
+
+	public QueryCostInstrumentation(int maxCost, Map<FieldCoordinates, FieldCost> fieldCosts) {
+		this.maxCost = maxCost;
+		this.fieldCosts = fieldCosts;
+	}
+
+	@Override
+	public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+			InstrumentationExecuteOperationParameters parameters) {
+		long cost = cost(parameters.getExecutionContext());
+		if (cost > maxCost) {
+			throw new AbortExecutionException("maximum query cost exceeded " + cost + " > " + maxCost);
+		}
+		return super.beginExecuteOperation(parameters);
+	}
+
+	/**
+	 * The cost of the operation being executed, using the variables as
+	 * coerced for this execution, or maxCost + 1 when it is over the budget.
+	 */
+	public long cost(ExecutionContext executionContext) {
+		QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+				.schema(executionContext.getGraphQLSchema())
+				.document(executionContext.getDocument())
+				.operationName(executionContext.getOperationDefinition().getName())
+				.variables(executionContext.getVariables())
+				.build();
+		// selection costs summed by parent field, null for the operation
+		Map<QueryVisitorFieldEnvironment, Long> costs = new HashMap<>();
+		traverser.visitPostOrder(new QueryVisitorStub() {
+			@Override
+			public void visitField(QueryVisitorFieldEnvironment environment) {
+				if (environment.isTypeNameIntrospectionField()) {
+					return;
+				}
+				FieldCost fieldCost = fieldCosts.get(FieldCoordinates.coordinates(
+						environment.getFieldsContainer().getName(), environment.getFieldDefinition().getName()));
+				if (fieldCost == null) {
+					fieldCost = FieldCost.DEFAULT;
+				}
+				long selectionsCost = costs.getOrDefault(environment, 0L);
+				long cost = clamp(fieldCost.cost(environment.getArguments(), selectionsCost));
+				costs.merge(environment.getParentEnvironment(), cost, (a, b) -> clamp(a + b));
+			}
+		});
+		return costs.getOrDefault(null, 0L);
+	}
+
+	/**
+	 * Costs over the budget are all rejected alike, so they are clamped just
+	 * above it and sums of them cannot overflow.
+	 */
+	private long clamp(long cost) {
+		return Math.min(cost, maxCost + 1L);
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import graphql.schema.FieldCoordinates;
+
+/**
+ * Keeps per field and per controller metrics in memory. Recording only
+ * increments atomic counters; summaries are computed by snapshot calls.
+ */
+public class InMemoryMetricsRecorder implements MetricsRecorder {
+
+	private final Map<FieldCoordinates, Stats> fields = new ConcurrentHashMap<>();
+	private final Map<String, Stats> controllers = new ConcurrentHashMap<>();
+
+	private static class Stats implements FieldRecorder {
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private final LongAdder errors = new LongAdder();
+
+		@Override
+		public void record(long nanos, boolean failed) {
+			latencies.record(nanos);
+			if (failed) {
+				errors.increment();
+			}
+		}
+
+		MetricsSummary summary() {
+			return new MetricsSummary(latencies.snapshot(), errors.sum());
+		}
+	}
+
+	@Override
+	public FieldRecorder fieldRecorder(FieldCoordinates coordinates, String controllerName) {
+		Stats field = fields.computeIfAbsent(coordinates, key -> new Stats());
+		if (controllerName == null) {
+			return field;
+		}
+		Stats controller = controllers.computeIfAbsent(controllerName, key -> new Stats());
+		return (nanos, failed) -> {
+			field.record(nanos, failed);
+			controller.record(nanos, failed);
+		};
+	}
+
+	/**
+	 * Summaries per field, keyed by "Type.field".
+	 */
+	public Map<String, MetricsSummary> snapshotFields() {
+		Map<String, MetricsSummary> snapshot = new TreeMap<>();
+		fields.forEach((coordinates, stats) -> snapshot.put(
+				coordinates.getTypeName() + "." + coordinates.getFieldName(), stats.summary()));
+		return snapshot;
+	}
+
+	/**
+	 * Summaries per controller, over all its root fields.
+	 */
+	public Map<String, MetricsSummary> snapshotControllers() {
+		Map<String, MetricsSummary> snapshot = new TreeMap<>();
+		controllers.forEach((name, stats) -> snapshot.put(name, stats.summary()));
+		return snapshot;
+	}
+
+}
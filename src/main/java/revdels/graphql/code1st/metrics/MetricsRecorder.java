@@ -0,0 +1,34 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.metrics;
+
+import graphql.schema.FieldCoordinates;
+
+/**
+ * Receives the invocations of generated data fetchers. Set one with
+ * GraphQLSchemaGenerator.setMetricsRecorder; without one the fetchers are
+ * not wrapped and nothing is recorded.
+ */
+public interface MetricsRecorder {
+
+	/**
+	 * Returns the recorder of one field. Called once per field when the
+	 * schema is generated, so recording does not look up the field.
+	 * The controller name is null for fields of DTO types.
+	 */
+	FieldRecorder fieldRecorder(FieldCoordinates coordinates, String controllerName);
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invocation count, error count and latency percentiles of a field or a
+ * controller at the time of a snapshot. Latencies are in nanoseconds.
+ */
+public final class MetricsSummary {
+
+	private final long count;
+	private final long errors;
+	private final long p50;
+	private final long p90;
+	private final long p99;
+	private final long max;
+
+	MetricsSummary(LatencyHistogram.Snapshot latencies, long errors) {
+		this.count = latencies.getCount();
+		this.errors = errors;
+		this.p50 = latencies.getValueAtPercentile(0.5);
+		this.p90 = latencies.getValueAtPercentile(0.9);
+		this.p99 = latencies.getValueAtPercentile(0.99);
+		this.max = latencies.getMax();
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public long getP90() {
+		return p90;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d errors=%d p50=%dus p90=%dus p99=%dus max=%dus", count, errors,
+				TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p90),
+				TimeUnit.NANOSECONDS.toMicros(p99), TimeUnit.NANOSECONDS.toMicros(max));
+	}
+
+}
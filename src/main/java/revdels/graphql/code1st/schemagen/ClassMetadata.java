@@ -0,0 +1,253 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.schemagen;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import revdels.graphql.code1st.annotations.GraphQLEnum;
+import revdels.graphql.code1st.annotations.GraphQLEnumValue;
+import revdels.graphql.code1st.annotations.GraphQLInput;
+import revdels.graphql.code1st.annotations.GraphQLParam;
+import revdels.graphql.code1st.annotations.GraphQLSkip;
+import revdels.graphql.code1st.annotations.GraphQLType;
+import revdels.graphql.code1st.api.PageRequest;
+import revdels.graphql.code1st.api.Projection;
+import revdels.graphql.code1st.schemagen.GraphQLAbstractObjectGenerator.FieldInfo;
+
+/**
+ * Introspection results for a class, computed once per JVM and shared by
+ * every schema generator. Parts are computed lazily; a race computes the same
+ * immutable value twice, which is harmless.
+ */
+final class ClassMetadata {
+
+	private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+		@Override
+		protected ClassMetadata computeValue(Class<?> type) {
+			return new ClassMetadata(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final GraphQLType typeAnnotation;
+	private final GraphQLEnum enumAnnotation;
+	private volatile List<Method> methods;
+	private volatile List<FieldInfo> outputFields;
+	private volatile List<FieldInfo> inputFields;
+	private volatile Optional<Constructor<?>> inputConstructor;
+	private volatile List<EnumValueInfo> enumValues;
+	private final ConcurrentHashMap<Method, List<ParameterInfo>> parameters = new ConcurrentHashMap<>();
+
+	private ClassMetadata(Class<?> type) {
+		this.type = type;
+		this.typeAnnotation = type.getAnnotation(GraphQLType.class);
+		this.enumAnnotation = type.getAnnotation(GraphQLEnum.class);
+	}
+
+	static ClassMetadata of(Class<?> type) {
+		return CACHE.get(type);
+	}
+
+	GraphQLType getTypeAnnotation() {
+		return typeAnnotation;
+	}
+
+	GraphQLEnum getEnumAnnotation() {
+		return enumAnnotation;
+	}
+
+	/**
+	 * Public methods not declared by Object nor annotated with {@link GraphQLSkip}.
+	 */
+	List<Method> getMethods() {
+		List<Method> result = methods;
+		if (result == null) {
+			result = Collections.unmodifiableList(Arrays.stream(type.getMethods())
+					.filter(method -> ! method.getDeclaringClass().equals(Object.class))
+					.filter(method -> method.getAnnotation(GraphQLSkip.class) == null)
+					.collect(Collectors.toList()));
+			methods = result;
+		}
+		return result;
+	}
+
+	List<FieldInfo> getOutputFields() {
+		List<FieldInfo> result = outputFields;
+		if (result == null) {
+			result = Collections.unmodifiableList(getMethods().stream()
+					.map(FieldInfo::new)
+					.filter(FieldInfo::isOutputField)
+					.collect(Collectors.toList()));
+			outputFields = result;
+		}
+		return result;
+	}
+
+	List<FieldInfo> getInputFields() {
+		List<FieldInfo> result = inputFields;
+		if (result == null) {
+			result = Collections.unmodifiableList(makeInputFields());
+			inputFields = result;
+		}
+		return result;
+	}
+
+	private List<FieldInfo> makeInputFields() {
+		if (Records.isRecord(type)) {
+			return Records.getComponents(type).stream()
+					.map(component -> new FieldInfo(component.getName(), component.getGenericType(), component.getAccessor()))
+					.collect(Collectors.toList());
+		}
+		Constructor<?> constructor = getInputConstructor();
+		if (constructor != null) {
+			List<FieldInfo> fields = new ArrayList<>();
+			for (Parameter parameter : constructor.getParameters()) {
+				if (!parameter.isNamePresent()) {
+					throw new IllegalStateException("Parameter names not available, compile with -parameters: " + constructor.toString());
+				}
+				fields.add(new FieldInfo(parameter.getName(), parameter.getParameterizedType(), null));
+			}
+			return fields;
+		}
+		return getMethods().stream()
+				.map(FieldInfo::new)
+				.filter(FieldInfo::isInputField)
+				.collect(Collectors.toList());
+	}
+
+	Constructor<?> getInputConstructor() {
+		Optional<Constructor<?>> result = inputConstructor;
+		if (result == null) {
+			result = Optional.ofNullable(makeInputConstructor());
+			inputConstructor = result;
+		}
+		return result.orElse(null);
+	}
+
+	private Constructor<?> makeInputConstructor() {
+		if (Records.isRecord(type)) {
+			Class<?>[] types = Records.getComponents(type).stream()
+					.map(Records.Component::getType)
+					.toArray(Class<?>[]::new);
+			try {
+				return type.getConstructor(types);
+			}
+			catch (NoSuchMethodException e) {
+				throw new IllegalStateException("No public canonical constructor: " + type.toString(), e);
+			}
+		}
+		return Arrays.stream(type.getConstructors())
+				.filter(constructor -> constructor.getAnnotation(GraphQLInput.class) != null)
+				.findFirst()
+				.orElse(null);
+	}
+
+	List<EnumValueInfo> getEnumValues() {
+		List<EnumValueInfo> result = enumValues;
+		if (result == null) {
+			result = Collections.unmodifiableList(Arrays.stream(type.getEnumConstants())
+					.map(EnumValueInfo::new)
+					.collect(Collectors.toList()));
+			enumValues = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Parameters of a method declared or inherited by this class.
+	 */
+	List<ParameterInfo> getParameters(Method method) {
+		return parameters.computeIfAbsent(method, m -> Collections.unmodifiableList(Arrays.stream(m.getParameters())
+				.map(ParameterInfo::new)
+				.collect(Collectors.toList())));
+	}
+
+	static final class EnumValueInfo {
+		private final Object value;
+		private final String label;
+
+		private EnumValueInfo(Object value) {
+			this.value = value;
+			String name = ((Enum<?>) value).name();
+			Field field;
+			try {
+				field = ((Enum<?>) value).getDeclaringClass().getField(name);
+			} catch (NoSuchFieldException | SecurityException e) {
+				throw new IllegalStateException("Cannot occur");
+			}
+			GraphQLEnumValue annotation = field.getAnnotation(GraphQLEnumValue.class);
+			String annotationLabel = annotation != null ? annotation.label() : "";
+			this.label = annotationLabel.isEmpty() ? name : annotationLabel;
+		}
+
+		Object getValue() {
+			return value;
+		}
+
+		String getLabel() {
+			return label;
+		}
+	}
+
+	static final class ParameterInfo {
+		private final String name;
+		private final String description;
+		private final Type type;
+
+		private ParameterInfo(Parameter parameter) {
+			GraphQLParam paramAnnotation = parameter.getAnnotation(GraphQLParam.class);
+			String paramName = paramAnnotation != null ? paramAnnotation.name() : "";
+			String paramDescription = paramAnnotation != null ? paramAnnotation.description() : "";
+			this.name = paramName.isEmpty() ? parameter.getName() : paramName;
+			this.description = paramDescription.isEmpty() ? name : paramDescription;
+			this.type = parameter.getParameterizedType();
+		}
+
+		String getName() {
+			return name;
+		}
+
+		String getDescription() {
+			return description;
+		}
+
+		Type getType() {
+			return type;
+		}
+
+		/**
+		 * Whether the parameter is injected from the environment instead of
+		 * being a GraphQL argument.
+		 */
+		boolean isInjected() {
+			return DataFetchingFieldSelectionSet.class.equals(type) || Projection.class.equals(type)
+					|| PageRequest.class.equals(type);
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.schemagen;
+
+/**
+ * The schema of one controller, generated at compile time by the
+ * graphql-code1st annotation processor: the SDL of its root fields and of
+ * the types they reach, and the methods bound to their fields. The processor
+ * only generates it for controllers it maps exactly like the runtime does.
+ */
+public interface GeneratedSchema {
+
+	/** Appended to the flattened binary name of the controller class. */
+	String CLASS_SUFFIX = "_GraphQLSchema";
+
+	/**
+	 * Rows of kind (type, input, enum or scalar), type name, class name and
+	 * SDL definition.
+	 */
+	String[][] types();
+
+	/**
+	 * Rows of root type name, field name and SDL field definition.
+	 */
+	String[][] rootFields();
+
+	/**
+	 * Rows of binding kind, type name, field name, declaring class name,
+	 * method name and parameter class names.
+	 */
+	String[][] bindings();
+
+}
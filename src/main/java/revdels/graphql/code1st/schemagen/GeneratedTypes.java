@@ -15,13 +15,41 @@
  */
 package revdels.graphql.code1st.schemagen;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
 import revdels.graphql.code1st.exceptions.DuplicateTypeException;
+import revdels.graphql.code1st.fetchers.InputObjectBinder;
+import revdels.graphql.code1st.instrumentation.FieldCost;
 
 public class GeneratedTypes {
-	Map<String,Class<?>> admin = new HashMap<>();
+	Map<String,Class<?>> admin = new ConcurrentHashMap<>();
+	Map<Class<?>,InputObjectBinder> inputBinders = new ConcurrentHashMap<>();
+	List<SchemaSnapshot.Binding> bindings = Collections.synchronizedList(new ArrayList<>());
+	Map<String,GraphQLNamedType> definitions = new ConcurrentHashMap<>();
+	Map<FieldCoordinates,DataFetcher<?>> dataFetchers = new ConcurrentHashMap<>();
+	Map<FieldCoordinates,FieldCost> fieldCosts = new ConcurrentHashMap<>();
+	Map<FieldCoordinates,String> propertyNames = new ConcurrentHashMap<>();
 	
 	boolean isDefinedType(String name, Class<?> type) {
 		Class<?> alreadyDefined = admin.putIfAbsent(name, type);
@@ -38,4 +66,130 @@ public class GeneratedTypes {
 		return admin.get(name);
 	}
 
+	/**
+	 * Returns the binder of an input type, creating it on first use. The
+	 * binder exists before the type counts as defined, so a generator that
+	 * finds the type defined by another thread always finds its binder.
+	 */
+	InputObjectBinder computeInputBinder(Class<?> type, Function<Class<?>, InputObjectBinder> factory) {
+		return inputBinders.computeIfAbsent(type, factory);
+	}
+
+	InputObjectBinder getInputBinder(Class<?> type) {
+		return inputBinders.get(type);
+	}
+
+	/**
+	 * All generated types by GraphQL name.
+	 */
+	public Map<String, Class<?>> getTypes() {
+		return Collections.unmodifiableMap(admin);
+	}
+
+	void registerBinding(SchemaSnapshot.Binding binding) {
+		bindings.add(binding);
+	}
+
+	List<SchemaSnapshot.Binding> getBindings() {
+		synchronized (bindings) {
+			return new ArrayList<>(bindings);
+		}
+	}
+
+	void registerDefinition(GraphQLNamedType definition) {
+		definitions.put(definition.getName(), definition);
+	}
+
+	/**
+	 * The built definitions of all generated types, shared by every schema
+	 * generated from this registry.
+	 */
+	Set<GraphQLType> getDefinitions() {
+		return new LinkedHashSet<>(definitions.values());
+	}
+
+	void registerDataFetcher(String typeName, String fieldName, DataFetcher<?> fetcher) {
+		dataFetchers.put(FieldCoordinates.coordinates(typeName, fieldName), fetcher);
+	}
+
+	Map<FieldCoordinates, DataFetcher<?>> getDataFetchers() {
+		return Collections.unmodifiableMap(dataFetchers);
+	}
+
+	void registerFieldCost(String typeName, String fieldName, FieldCost fieldCost) {
+		fieldCosts.put(FieldCoordinates.coordinates(typeName, fieldName), fieldCost);
+	}
+
+	Map<FieldCoordinates, FieldCost> getFieldCosts() {
+		return Collections.unmodifiableMap(fieldCosts);
+	}
+
+	void registerPropertyName(String typeName, String fieldName, String propertyName) {
+		if (!propertyName.equals(fieldName)) {
+			propertyNames.put(FieldCoordinates.coordinates(typeName, fieldName), propertyName);
+		}
+	}
+
+	/**
+	 * The Java property behind a field of a generated type.
+	 */
+	public String getPropertyName(String typeName, String fieldName) {
+		return propertyNames.getOrDefault(FieldCoordinates.coordinates(typeName, fieldName), fieldName);
+	}
+
+	/**
+	 * Forgets the types that can no longer be reached from the given root
+	 * fields, with their binders, fetchers and bindings. Returns the names of
+	 * the remaining types.
+	 */
+	Set<String> retainReachable(Collection<GraphQLFieldDefinition> rootFields) {
+		Set<String> reachable = new HashSet<>();
+		Deque<GraphQLType> pending = new ArrayDeque<>();
+		rootFields.forEach(field -> addFieldTypes(field, pending));
+		while (!pending.isEmpty()) {
+			String name = typeName(pending.pop());
+			GraphQLNamedType definition = definitions.get(name);
+			if (definition == null || !reachable.add(name)) {
+				continue;
+			}
+			if (definition instanceof GraphQLObjectType) {
+				((GraphQLObjectType) definition).getFieldDefinitions().forEach(field -> addFieldTypes(field, pending));
+			}
+			else if (definition instanceof GraphQLInputObjectType) {
+				((GraphQLInputObjectType) definition).getFieldDefinitions().stream()
+						.map(GraphQLInputObjectField::getType)
+						.forEach(pending::push);
+			}
+		}
+		admin.keySet().retainAll(reachable);
+		definitions.keySet().retainAll(reachable);
+		inputBinders.keySet().retainAll(admin.values());
+		dataFetchers.keySet().removeIf(coordinates -> !reachable.contains(coordinates.getTypeName()));
+		fieldCosts.keySet().removeIf(coordinates -> !reachable.contains(coordinates.getTypeName()));
+		propertyNames.keySet().removeIf(coordinates -> !reachable.contains(coordinates.getTypeName()));
+		bindings.removeIf(binding -> !reachable.contains(binding.getTypeName()));
+		return reachable;
+	}
+
+	/**
+	 * The name of a possibly wrapped type. Unlike GraphQLTypeUtil.unwrapAll
+	 * this accepts type references, which are not unmodified types.
+	 */
+	static String typeName(GraphQLType type) {
+		while (type instanceof GraphQLModifiedType) {
+			type = ((GraphQLModifiedType) type).getWrappedType();
+		}
+		return ((GraphQLNamedType) type).getName();
+	}
+
+	private static void addFieldTypes(GraphQLFieldDefinition field, Deque<GraphQLType> pending) {
+		pending.push(field.getType());
+		field.getArguments().stream().map(GraphQLArgument::getType).forEach(pending::push);
+	}
+
+	public InputObjectBinder getInputBinder(String name) {
+		Class<?> type = admin.get(name);
+		return type == null ? null : inputBinders.get(type);
+	}
+
 }
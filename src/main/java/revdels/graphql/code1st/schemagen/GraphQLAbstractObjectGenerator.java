@@ -15,17 +15,21 @@
  */
 package revdels.graphql.code1st.schemagen;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+import revdels.graphql.code1st.annotations.GraphQLBatch;
 import revdels.graphql.code1st.annotations.GraphQLField;
-import revdels.graphql.code1st.annotations.GraphQLSkip;
+import revdels.graphql.code1st.annotations.GraphQLInput;
 import revdels.graphql.code1st.annotations.GraphQLType;
+import revdels.graphql.code1st.exceptions.UnsuportedTypeException;
 
 public class GraphQLAbstractObjectGenerator {
 
@@ -42,13 +46,15 @@ public class GraphQLAbstractObjectGenerator {
 
 	protected class ObjectInfo {
 		private final Class<?> clazz;
+		private final ClassMetadata metadata;
 		private final GraphQLType typeAnnotation;
 		private String name;
 		private String description;
 		
 		ObjectInfo(Class<?> clazz) {
 			this.clazz = clazz;
-			this.typeAnnotation = clazz.getAnnotation(GraphQLType.class);
+			this.metadata = ClassMetadata.of(clazz);
+			this.typeAnnotation = metadata.getTypeAnnotation();
 			makeName();
 			makeDescription();
 		}
@@ -68,21 +74,20 @@ public class GraphQLAbstractObjectGenerator {
 		}
 		
 		List<FieldInfo> getOutputFields() {
-			return Arrays.stream(clazz.getMethods())
-			.filter(method -> ! method.getDeclaringClass().equals(Object.class))
-			.filter(method -> method.getAnnotation(GraphQLSkip.class) == null)
-			.map(FieldInfo::new)
-			.filter(FieldInfo::isOutputField)
-			.collect(Collectors.toList());
+			return metadata.getOutputFields();
+		}
+
+		/**
+		 * Returns the constructor that binds all input fields at once: the
+		 * canonical constructor of a record or a constructor annotated with
+		 * {@link GraphQLInput}. Returns null for setter based input types.
+		 */
+		Constructor<?> getInputConstructor() {
+			return metadata.getInputConstructor();
 		}
 
 		List<FieldInfo> getInputFields() {
-			return Arrays.stream(clazz.getMethods())
-			.filter(method -> ! method.getDeclaringClass().equals(Object.class))
-			.filter(method -> method.getAnnotation(GraphQLSkip.class) == null)
-			.map(FieldInfo::new)
-			.filter(FieldInfo::isInputField)
-			.collect(Collectors.toList());
+			return metadata.getInputFields();
 		}
 
 		public String getDescription() {
@@ -93,26 +98,48 @@ public class GraphQLAbstractObjectGenerator {
 			return name;
 		}
 
+		Class<?> getJavaType() {
+			return clazz;
+		}
+
 	}
 
-	private enum FieldType { GETTER, SETTER, OTHER };
+	private enum FieldType { GETTER, SETTER, PARAMETER, OTHER };
 	
 
 	protected static class FieldInfo {
 		private Method method;
 		GraphQLField fieldAnnotation;
+		GraphQLBatch batchAnnotation;
 
 		private String name;
 		private FieldType fieldType;
 		private String description;
+		private Type parameterType;
 
 		FieldInfo(Method method) {
 			this.method = method;
 			this.fieldAnnotation = method.getAnnotation(GraphQLField.class);
+			this.batchAnnotation = method.getAnnotation(GraphQLBatch.class);
 			makeName();
 			makeDescription();
 		}
 
+		/**
+		 * Input field bound through a constructor parameter. For records the
+		 * component accessor may carry a {@link GraphQLField} annotation.
+		 */
+		FieldInfo(String name, Type parameterType, Method accessor) {
+			this.fieldAnnotation = accessor == null ? null : accessor.getAnnotation(GraphQLField.class);
+			this.name = name;
+			this.parameterType = parameterType;
+			this.fieldType = FieldType.PARAMETER;
+			if (fieldAnnotation != null && !fieldAnnotation.name().isEmpty()) {
+				this.name = fieldAnnotation.name();
+			}
+			makeDescription();
+		}
+
 
 		private void makeName() {
 			fieldType = FieldType.OTHER;
@@ -151,10 +178,16 @@ public class GraphQLAbstractObjectGenerator {
 		}
 		
 		boolean isInputField() {
-			return fieldType == FieldType.SETTER;
+			return fieldType == FieldType.SETTER || fieldType == FieldType.PARAMETER;
 		}
 		
 		Type getDataType() {
+			if (fieldType == FieldType.PARAMETER) {
+				return parameterType;
+			}
+			if (batchAnnotation != null) {
+				return getBatchDataType();
+			}
 			if (fieldType == FieldType.SETTER) {
 				return method.getParameters()[0].getParameterizedType();
 			}
@@ -163,6 +196,57 @@ public class GraphQLAbstractObjectGenerator {
 			}
 		}
 		
+		/**
+		 * The field type of a batch method: the element type of its List result
+		 * or the value type of its Map result.
+		 */
+		private Type getBatchDataType() {
+			if (!Modifier.isStatic(method.getModifiers())
+					|| method.getParameterCount() == 0
+					|| !List.class.equals(method.getParameterTypes()[0])) {
+				throw new IllegalStateException("Batch method must be static and take a List of parents first: " + method.toString());
+			}
+			Type returnType = method.getGenericReturnType();
+			if (returnType instanceof ParameterizedType) {
+				ParameterizedType ptype = (ParameterizedType) returnType;
+				if (ptype.getRawType().equals(List.class)) {
+					return ptype.getActualTypeArguments()[0];
+				}
+				if (ptype.getRawType().equals(Map.class)) {
+					return ptype.getActualTypeArguments()[1];
+				}
+			}
+			throw new UnsuportedTypeException(returnType.getTypeName());
+		}
+
+		boolean isBatch() {
+			return batchAnnotation != null;
+		}
+
+		GraphQLBatch getBatchAnnotation() {
+			return batchAnnotation;
+		}
+
+		/**
+		 * The Java property behind an output field: the property of a getter,
+		 * otherwise the method name.
+		 */
+		String getPropertyName() {
+			Matcher matcher = getterPattern.matcher(method.getName());
+			if (matcher.matches() && method.getParameterCount() == 0) {
+				String propertyName = matcher.group("name");
+				return propertyName.substring(0,1).toLowerCase() + propertyName.substring(1);
+			}
+			return method.getName();
+		}
+
+		/**
+		 * Number of leading method parameters that are not field arguments.
+		 */
+		int getFirstArgument() {
+			return isBatch() ? 1 : 0;
+		}
+
 		private void makeDescription() {
 			if (fieldAnnotation != null) {
 				description = (fieldAnnotation.description());
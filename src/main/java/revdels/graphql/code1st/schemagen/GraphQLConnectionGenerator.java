@@ -0,0 +1,100 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.schemagen;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLTypeReference;
+import revdels.graphql.code1st.api.Page;
+import revdels.graphql.code1st.api.PageInfo;
+import revdels.graphql.code1st.exceptions.UnsuportedTypeException;
+import revdels.graphql.code1st.schemagen.SchemaSnapshot.BindingKind;
+
+/**
+ * Generates the Relay connection and edge types of a {@link Page} of
+ * nodes. The fields are bound to the getters of Page and Page.Edge like
+ * those of any generated object type.
+ */
+public class GraphQLConnectionGenerator {
+
+	private GraphQLTypeGenerator typeGenerator;
+
+	public GraphQLConnectionGenerator(GraphQLTypeGenerator typeGenerator) {
+		this.typeGenerator = typeGenerator;
+	}
+
+	public GraphQLOutputType generate(Type nodeType) {
+		GraphQLOutputType node = typeGenerator.generateOutputType(nodeType);
+		if (node instanceof GraphQLModifiedType) {
+			throw new UnsuportedTypeException("Page of " + nodeType.getTypeName());
+		}
+		String nodeName = GeneratedTypes.typeName(node);
+		String connectionName = nodeName + "Connection";
+		if (typeGenerator.isDefinedType(connectionName, Page.class)) {
+			return GraphQLTypeReference.typeRef(connectionName);
+		}
+		GraphQLOutputType pageInfo = typeGenerator.generateOutputType(PageInfo.class);
+		String edgeName = nodeName + "Edge";
+		GraphQLOutputType edge = GraphQLTypeReference.typeRef(edgeName);
+		if (!typeGenerator.isDefinedType(edgeName, Page.Edge.class)) {
+			edge = generateObject(edgeName, GraphQLObjectType.newObject()
+					.field(generateField(edgeName, "node", node, getter(Page.Edge.class, "getNode")))
+					.field(generateField(edgeName, "cursor", Scalars.GraphQLString, getter(Page.Edge.class, "getCursor"))));
+		}
+		return generateObject(connectionName, GraphQLObjectType.newObject()
+				.field(generateField(connectionName, "edges", GraphQLList.list(edge), getter(Page.class, "getEdges")))
+				.field(generateField(connectionName, "pageInfo", pageInfo, getter(Page.class, "getPageInfo"))));
+	}
+
+	private GraphQLObjectType generateObject(String name, GraphQLObjectType.Builder object) {
+		GraphQLObjectType objectType = object.name(name).description(name).build();
+		typeGenerator.getGeneratedTypes().registerDefinition(objectType);
+		return objectType;
+	}
+
+	private GraphQLFieldDefinition generateField(String typeName, String fieldName, GraphQLOutputType type, Method getter) {
+		GraphQLFetcherGenerator fetcherGenerator = typeGenerator.getFetcherGenerator();
+		DataFetcher<?> fetcher = fetcherGenerator.withMetrics(fetcherGenerator.generateGetter(getter), typeName, fieldName, null, true);
+		GeneratedTypes generatedTypes = typeGenerator.getGeneratedTypes();
+		generatedTypes.registerBinding(new SchemaSnapshot.Binding(BindingKind.GETTER, typeName, fieldName, null, getter));
+		if (fetcher != null) {
+			generatedTypes.registerDataFetcher(typeName, fieldName, fetcher);
+		}
+		return GraphQLFieldDefinition.newFieldDefinition()
+				.name(fieldName)
+				.description(fieldName)
+				.type(type)
+				.build();
+	}
+
+	private static Method getter(Class<?> type, String name) {
+		try {
+			return type.getMethod(name);
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
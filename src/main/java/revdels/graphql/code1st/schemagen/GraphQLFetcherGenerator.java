@@ -0,0 +1,378 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.schemagen;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.FieldCoordinates;
+import revdels.graphql.code1st.annotations.GraphQLBatch;
+import revdels.graphql.code1st.annotations.GraphQLCacheable;
+import revdels.graphql.code1st.annotations.GraphQLField;
+import revdels.graphql.code1st.annotations.GraphQLMutation;
+import revdels.graphql.code1st.annotations.GraphQLQuery;
+import revdels.graphql.code1st.annotations.GraphQLSubscription;
+import revdels.graphql.code1st.annotations.Offload;
+import revdels.graphql.code1st.api.InvocationMode;
+import revdels.graphql.code1st.api.Projection;
+import revdels.graphql.code1st.fetchers.AccessorFactory;
+import revdels.graphql.code1st.fetchers.BatchDataFetcher;
+import revdels.graphql.code1st.fetchers.BoundedListDataFetcher;
+import revdels.graphql.code1st.fetchers.CachingDataFetcher;
+import revdels.graphql.code1st.fetchers.GeneratedAccessorFactory;
+import revdels.graphql.code1st.fetchers.GenericDataFetcher;
+import revdels.graphql.code1st.fetchers.GetterDataFetcher;
+import revdels.graphql.code1st.fetchers.LambdaAccessorFactory;
+import revdels.graphql.code1st.fetchers.MethodHandleAccessorFactory;
+import revdels.graphql.code1st.fetchers.MethodBatchLoader;
+import revdels.graphql.code1st.fetchers.MethodHandleInvoker;
+import revdels.graphql.code1st.fetchers.MethodInvoker;
+import revdels.graphql.code1st.fetchers.MetricsDataFetcher;
+import revdels.graphql.code1st.fetchers.OffloadExecutors;
+import revdels.graphql.code1st.fetchers.OffloadingDataFetcher;
+import revdels.graphql.code1st.fetchers.ReflectionAccessorFactory;
+import revdels.graphql.code1st.fetchers.ReflectionMethodInvoker;
+import revdels.graphql.code1st.fetchers.ResultCache;
+import revdels.graphql.code1st.fetchers.SharedSubscriptions;
+import revdels.graphql.code1st.fetchers.SubscriptionDataFetcher;
+import revdels.graphql.code1st.fetchers.TrivialGetterDataFetcher;
+import revdels.graphql.code1st.metrics.MetricsRecorder;
+
+public class GraphQLFetcherGenerator {
+
+	private GraphQLTypeGenerator typeGenerator;
+	private InvocationMode invocationMode = InvocationMode.METHOD_HANDLE;
+	private boolean trivialGetters = true;
+	private boolean offload = false;
+	private Executor offloadExecutor;
+	private ExecutorService defaultOffloadExecutor;
+	private MetricsRecorder metricsRecorder;
+	private boolean getterMetrics = false;
+	private int maxListSize = 100_000;
+	private final Map<String, BatchLoaderDefinition> batchLoaders = new ConcurrentHashMap<>();
+	private final SharedSubscriptions sharedSubscriptions = new SharedSubscriptions();
+	private final ResultCache resultCache = new ResultCache();
+
+	private static class BatchLoaderDefinition {
+		private final MethodBatchLoader loader;
+		private final GraphQLBatch batchAnnotation;
+
+		BatchLoaderDefinition(MethodBatchLoader loader, GraphQLBatch batchAnnotation) {
+			this.loader = loader;
+			this.batchAnnotation = batchAnnotation;
+		}
+
+		DataLoader<?, ?> newDataLoader() {
+			DataLoaderOptions options = DataLoaderOptions.newOptions()
+					.setCachingEnabled(batchAnnotation.caching());
+			if (batchAnnotation.maxBatchSize() > 0) {
+				options.setMaxBatchSize(batchAnnotation.maxBatchSize());
+			}
+			return DataLoader.newDataLoader(loader, options);
+		}
+	}
+	private final AccessorFactory reflectionAccessors = new ReflectionAccessorFactory();
+	private final AccessorFactory methodHandleAccessors = new MethodHandleAccessorFactory();
+	private final AccessorFactory generatedAccessors = new GeneratedAccessorFactory(new LambdaAccessorFactory());
+
+	public GraphQLFetcherGenerator(GraphQLTypeGenerator typeGenerator) {
+		this.typeGenerator = typeGenerator;
+	}
+
+	public DataFetcher<?> generate(Object controller, Method method) {
+		DataFetcher<?> fetcher = new GenericDataFetcher(typeGenerator.genArgumentPlan(method), newInvoker(controller, method));
+		if (isLazyList(method.getGenericReturnType())) {
+			fetcher = new BoundedListDataFetcher(fetcher, maxListSize);
+		}
+		if (isOffloaded(method)) {
+			fetcher = new OffloadingDataFetcher(fetcher, getOffloadExecutor());
+		}
+		return fetcher;
+	}
+
+	/**
+	 * Subscription methods return a Reactive Streams or Flow publisher; the
+	 * fetcher adapts it and applies the declared backpressure policy.
+	 */
+	public DataFetcher<?> generateSubscription(Object controller, Method method, String fieldName) {
+		GraphQLSubscription annotation = method.getAnnotation(GraphQLSubscription.class);
+		if (annotation.shared()) {
+			return new SubscriptionDataFetcher(generate(controller, method), annotation.backpressure(), annotation.bufferSize(),
+					sharedSubscriptions, "Subscription." + fieldName);
+		}
+		return new SubscriptionDataFetcher(generate(controller, method), annotation.backpressure(), annotation.bufferSize());
+	}
+
+	public DataFetcher<?> generate(Method method) {
+		return generate(null, method);
+	}
+
+	/**
+	 * Returns a fetcher that batches calls of a static @GraphQLBatch method
+	 * through the DataLoader named after the field coordinates.
+	 */
+	public DataFetcher<?> generateBatch(String typeName, String fieldName, Method method) {
+		String loaderName = typeName + "." + fieldName;
+		batchLoaders.put(loaderName, new BatchLoaderDefinition(
+				new MethodBatchLoader(newInvoker(null, method)), method.getAnnotation(GraphQLBatch.class)));
+		return new BatchDataFetcher(loaderName, typeGenerator.genArgumentPlan(method, 1));
+	}
+
+	/**
+	 * Wraps the fetcher of a @GraphQLCacheable query in a result cache,
+	 * registered under the field name. Methods receiving the selection set
+	 * are cached per selection.
+	 */
+	public DataFetcher<?> withCache(DataFetcher<?> fetcher, String fieldName, Method method) {
+		GraphQLCacheable cacheable = method.getAnnotation(GraphQLCacheable.class);
+		if (cacheable == null) {
+			return fetcher;
+		}
+		boolean selectionKeyed = Arrays.stream(method.getParameterTypes()).anyMatch(type ->
+				Projection.class.equals(type) || DataFetchingFieldSelectionSet.class.equals(type));
+		CachingDataFetcher cachingFetcher = new CachingDataFetcher(fetcher, cacheable, selectionKeyed);
+		resultCache.register(fieldName, cachingFetcher);
+		return cachingFetcher;
+	}
+
+	public ResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Wraps a fetcher so its invocations are recorded, when a metrics
+	 * recorder is set. Getter fetchers are only wrapped when getter metrics
+	 * are enabled.
+	 */
+	public DataFetcher<?> withMetrics(DataFetcher<?> fetcher, String typeName, String fieldName, String controllerName, boolean getter) {
+		if (fetcher == null || metricsRecorder == null || (getter && !getterMetrics)) {
+			return fetcher;
+		}
+		return new MetricsDataFetcher(fetcher,
+				metricsRecorder.fieldRecorder(FieldCoordinates.coordinates(typeName, fieldName), controllerName));
+	}
+
+	/**
+	 * Drops the batch loaders of fields whose type is no longer generated.
+	 */
+	void retainBatchLoaders(Set<String> typeNames) {
+		batchLoaders.keySet().removeIf(loaderName -> !typeNames.contains(loaderName.substring(0, loaderName.indexOf('.'))));
+	}
+
+	/**
+	 * Creates new DataLoaders, with empty caches, for all batched fields.
+	 * Use a new registry for every request.
+	 */
+	public DataLoaderRegistry newDataLoaderRegistry() {
+		DataLoaderRegistry registry = new DataLoaderRegistry();
+		batchLoaders.forEach((name, definition) -> registry.register(name, definition.newDataLoader()));
+		return registry;
+	}
+
+	/**
+	 * Returns a fetcher bound to a plain getter, or null in REFLECTION mode,
+	 * where graphql-java's default PropertyDataFetcher is used.
+	 */
+	public DataFetcher<?> generateGetter(Method getter) {
+		if (isLazyList(getter.getGenericReturnType())) {
+			return new BoundedListDataFetcher(new GetterDataFetcher(getAccessorFactory().getter(getter)), maxListSize);
+		}
+		if (invocationMode == InvocationMode.REFLECTION) {
+			return null;
+		}
+		if (trivialGetters) {
+			return new TrivialGetterDataFetcher(getAccessorFactory().getter(getter));
+		}
+		return new GetterDataFetcher(getAccessorFactory().getter(getter));
+	}
+
+	/**
+	 * Streams, iterators and iterables other than collections are read by
+	 * the fetcher, which bounds their size and closes them.
+	 */
+	private boolean isLazyList(Type type) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType ptype = (ParameterizedType) type;
+			if (CompletionStage.class.isAssignableFrom((Class<?>) ptype.getRawType())) {
+				return isLazyList(ptype.getActualTypeArguments()[0]);
+			}
+			type = ptype.getRawType();
+		}
+		return type instanceof Class<?> && !Collection.class.isAssignableFrom((Class<?>) type)
+				&& (Stream.class.isAssignableFrom((Class<?>) type)
+						|| Iterator.class.isAssignableFrom((Class<?>) type)
+						|| Iterable.class.isAssignableFrom((Class<?>) type));
+	}
+
+	/**
+	 * Methods run on the offload executor when their annotation says so or,
+	 * by default, when offloading is enabled and the method is neither
+	 * asynchronous already nor a subscription.
+	 */
+	private boolean isOffloaded(Method method) {
+		switch (getOffload(method)) {
+			case ALWAYS:
+				return true;
+			case NEVER:
+				return false;
+			case DEFAULT:
+			default:
+				return offload
+						&& !CompletionStage.class.isAssignableFrom(method.getReturnType())
+						&& method.getAnnotation(GraphQLSubscription.class) == null;
+		}
+	}
+
+	private Offload getOffload(Method method) {
+		GraphQLQuery queryAnnotation = method.getAnnotation(GraphQLQuery.class);
+		if (queryAnnotation != null) {
+			return queryAnnotation.offload();
+		}
+		GraphQLMutation mutationAnnotation = method.getAnnotation(GraphQLMutation.class);
+		if (mutationAnnotation != null) {
+			return mutationAnnotation.offload();
+		}
+		GraphQLField fieldAnnotation = method.getAnnotation(GraphQLField.class);
+		if (fieldAnnotation != null) {
+			return fieldAnnotation.offload();
+		}
+		return Offload.DEFAULT;
+	}
+
+	private synchronized Executor getOffloadExecutor() {
+		if (offloadExecutor == null) {
+			defaultOffloadExecutor = OffloadExecutors.newDefaultExecutor();
+			offloadExecutor = defaultOffloadExecutor;
+		}
+		return offloadExecutor;
+	}
+
+	/**
+	 * Shuts down the default offload executor, if one was created; an
+	 * executor set with setOffloadExecutor belongs to the caller.
+	 */
+	public synchronized void shutdownOffloadExecutor() {
+		if (defaultOffloadExecutor != null) {
+			defaultOffloadExecutor.shutdown();
+			if (offloadExecutor == defaultOffloadExecutor) {
+				offloadExecutor = null;
+			}
+			defaultOffloadExecutor = null;
+		}
+	}
+
+	/**
+	 * Invokers generated by the annotation processor are only used in
+	 * GENERATED mode, with method handles for methods that have none.
+	 */
+	MethodInvoker newInvoker(Object controller, Method method) {
+		if (invocationMode == InvocationMode.REFLECTION) {
+			return new ReflectionMethodInvoker(controller, method);
+		}
+		if (invocationMode == InvocationMode.GENERATED) {
+			MethodInvoker generated = GeneratedAccessorFactory.invoker(controller, method);
+			if (generated != null) {
+				return generated;
+			}
+		}
+		return new MethodHandleInvoker(controller, method);
+	}
+
+	public AccessorFactory getAccessorFactory() {
+		switch (invocationMode) {
+			case REFLECTION:
+				return reflectionAccessors;
+			case GENERATED:
+				return generatedAccessors;
+			case METHOD_HANDLE:
+			default:
+				return methodHandleAccessors;
+		}
+	}
+
+	public InvocationMode getInvocationMode() {
+		return invocationMode;
+	}
+
+	public void setInvocationMode(InvocationMode invocationMode) {
+		this.invocationMode = invocationMode;
+	}
+
+	public boolean isTrivialGetters() {
+		return trivialGetters;
+	}
+
+	public void setTrivialGetters(boolean trivialGetters) {
+		this.trivialGetters = trivialGetters;
+	}
+
+	public boolean isOffload() {
+		return offload;
+	}
+
+	public void setOffload(boolean offload) {
+		this.offload = offload;
+	}
+
+	public synchronized void setOffloadExecutor(Executor offloadExecutor) {
+		this.offloadExecutor = offloadExecutor;
+	}
+
+	public MetricsRecorder getMetricsRecorder() {
+		return metricsRecorder;
+	}
+
+	public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	public int getMaxListSize() {
+		return maxListSize;
+	}
+
+	public void setMaxListSize(int maxListSize) {
+		if (maxListSize < 0) {
+			throw new IllegalArgumentException("Maximum list size must not be negative");
+		}
+		this.maxListSize = maxListSize;
+	}
+
+	public boolean isGetterMetrics() {
+		return getterMetrics;
+	}
+
+	public void setGetterMetrics(boolean getterMetrics) {
+		this.getterMetrics = getterMetrics;
+	}
+
+}
@@ -15,10 +15,18 @@
  */
 package revdels.graphql.code1st.schemagen;
 
+import java.lang.reflect.Constructor;
+import java.util.function.BiConsumer;
+
 import graphql.schema.GraphQLInputObjectField;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLInputType;
 import graphql.schema.GraphQLTypeReference;
+import revdels.graphql.code1st.fetchers.AccessorFactory;
+import revdels.graphql.code1st.fetchers.ConstructorInputObjectBinder;
+import revdels.graphql.code1st.fetchers.InputBinder;
+import revdels.graphql.code1st.fetchers.InputObjectBinder;
+import revdels.graphql.code1st.fetchers.SetterInputObjectBinder;
 
 public class GraphQLInputObjectGenerator extends GraphQLAbstractObjectGenerator {
 
@@ -32,26 +40,50 @@ public class GraphQLInputObjectGenerator extends GraphQLAbstractObjectGenerator
 	
 	public GraphQLInputType generate(Class<?> type) {
 		ObjectInfo objectInfo = new ObjectInfo(type);
+		InputObjectBinder binder = typeGenerator.getGeneratedTypes().computeInputBinder(type, t -> newBinder(objectInfo));
 		if (typeGenerator.isDefinedType(objectInfo.getName(), type)) {
 			return GraphQLTypeReference.typeRef(objectInfo.getName());
 		}
-		return generateObject(objectInfo);
-		
+		if (typeGenerator.deferType(() -> typeGenerator.generateNested(() -> generateObject(objectInfo, binder)))) {
+			return GraphQLTypeReference.typeRef(objectInfo.getName());
+		}
+		return typeGenerator.generateNested(() -> generateObject(objectInfo, binder));
+	}
+
+	private GraphQLInputType generateObject(ObjectInfo objectInfo, InputObjectBinder binder) {
+		if (binder instanceof ConstructorInputObjectBinder) {
+			ConstructorInputObjectBinder constructorBinder = (ConstructorInputObjectBinder) binder;
+			return generateObject(objectInfo, (fieldInfo, fieldBinder) -> constructorBinder.addParameter(fieldInfo.getName(), fieldBinder));
+		}
+		SetterInputObjectBinder setterBinder = (SetterInputObjectBinder) binder;
+		return generateObject(objectInfo, (fieldInfo, fieldBinder) -> setterBinder.addProperty(fieldInfo.getName(), fieldInfo.getMethod(), fieldBinder));
+	}
+
+	private InputObjectBinder newBinder(ObjectInfo objectInfo) {
+		AccessorFactory accessorFactory = typeGenerator.getFetcherGenerator().getAccessorFactory();
+		Constructor<?> constructor = objectInfo.getInputConstructor();
+		if (constructor != null) {
+			return new ConstructorInputObjectBinder(constructor, accessorFactory);
+		}
+		return new SetterInputObjectBinder(objectInfo.getJavaType(), accessorFactory);
 	}
 		
-	private GraphQLInputType generateObject(ObjectInfo objectInfo) {
+	private GraphQLInputType generateObject(ObjectInfo objectInfo, BiConsumer<FieldInfo, InputBinder> binderField) {
 		GraphQLInputObjectType.Builder object = GraphQLInputObjectType.newInputObject();
 		object.name(objectInfo.getName());
 		object.description(objectInfo.getDescription());
-		objectInfo.getInputFields().forEach(fieldInfo -> object.field(generateField(fieldInfo)));
-		return object.build();
+		objectInfo.getInputFields().forEach(fieldInfo -> object.field(generateField(fieldInfo, binderField)));
+		GraphQLInputObjectType objectType = object.build();
+		typeGenerator.getGeneratedTypes().registerDefinition(objectType);
+		return objectType;
 	}
 
-	private GraphQLInputObjectField generateField(FieldInfo fieldInfo) {
+	private GraphQLInputObjectField generateField(FieldInfo fieldInfo, BiConsumer<FieldInfo, InputBinder> binderField) {
 		GraphQLInputObjectField.Builder field = GraphQLInputObjectField.newInputObjectField();
 		field.name(fieldInfo.getName());
 		field.type(typeGenerator.generateInputType(fieldInfo.getDataType()));
 		field.description(fieldInfo.getDescription());
+		binderField.accept(fieldInfo, typeGenerator.generateInputBinder(fieldInfo.getDataType()));
 		return field.build();
 	}
 	
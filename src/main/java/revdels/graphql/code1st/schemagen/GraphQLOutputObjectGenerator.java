@@ -15,23 +15,21 @@
  */
 package revdels.graphql.code1st.schemagen;
 
-import graphql.schema.FieldCoordinates;
-import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.DataFetcher;
 import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLTypeReference;
-import revdels.graphql.code1st.fetchers.GenericDataFetcher;
+import revdels.graphql.code1st.instrumentation.FieldCost;
+import revdels.graphql.code1st.schemagen.SchemaSnapshot.BindingKind;
 
 public class GraphQLOutputObjectGenerator extends GraphQLAbstractObjectGenerator {
 	
-	private GraphQLCodeRegistry.Builder codeRegistryBuilder;
 	private GraphQLTypeGenerator typeGenerator;
 	
-	public GraphQLOutputObjectGenerator(GraphQLTypeGenerator typeGeneratorl, GraphQLCodeRegistry.Builder codeRegistryBuilder) {
+	public GraphQLOutputObjectGenerator(GraphQLTypeGenerator typeGeneratorl) {
 		super("");
 		this.typeGenerator = typeGeneratorl;
-		this.codeRegistryBuilder = codeRegistryBuilder;
 	}
 	
 	public GraphQLOutputType generate(Class<?> type) {
@@ -39,7 +37,10 @@ public class GraphQLOutputObjectGenerator extends GraphQLAbstractObjectGenerator
 		if (typeGenerator.isDefinedType(objectInfo.getName(), type)) {
 			return GraphQLTypeReference.typeRef(objectInfo.getName());
 		}
-		return generateObject(objectInfo);
+		if (typeGenerator.deferType(() -> typeGenerator.generateNested(() -> generateObject(objectInfo)))) {
+			return GraphQLTypeReference.typeRef(objectInfo.getName());
+		}
+		return typeGenerator.generateNested(() -> generateObject(objectInfo));
 	}
 
 	private GraphQLOutputType generateObject(ObjectInfo objectInfo) {
@@ -47,7 +48,9 @@ public class GraphQLOutputObjectGenerator extends GraphQLAbstractObjectGenerator
 		object.name(objectInfo.getName());
 		object.description(objectInfo.getDescription());
 		objectInfo.getOutputFields().forEach(fieldInfo -> object.field(generateField(objectInfo, fieldInfo)));
-		return object.build();
+		GraphQLObjectType objectType = object.build();
+		typeGenerator.getGeneratedTypes().registerDefinition(objectType);
+		return objectType;
 	}
 
 	private GraphQLFieldDefinition generateField(ObjectInfo objectInfo, FieldInfo fieldInfo) {
@@ -55,12 +58,34 @@ public class GraphQLOutputObjectGenerator extends GraphQLAbstractObjectGenerator
 		GraphQLFieldDefinition fieldDef = field.name(fieldInfo.getName())
 			 .type(typeGenerator.generateOutputType(fieldInfo.getDataType()))
 			 .description(fieldInfo.getDescription())
-			 .arguments(typeGenerator.genInputArguments(fieldInfo.getMethod()))
+			 .arguments(typeGenerator.genInputArguments(fieldInfo.getMethod(), fieldInfo.getFirstArgument()))
 			 .build();
-		if (!fieldInfo.useDefaultFetcher()) {
-			codeRegistryBuilder.dataFetcher(
-				FieldCoordinates.coordinates( objectInfo.getName(), fieldInfo.getName()), 
-				new GenericDataFetcher(typeGenerator.getGeneratedTypes(), fieldInfo.getMethod()));
+		GraphQLFetcherGenerator fetcherGenerator = typeGenerator.getFetcherGenerator();
+		DataFetcher<?> fetcher;
+		BindingKind kind;
+		if (fieldInfo.isBatch()) {
+			kind = BindingKind.BATCH;
+			fetcher = fetcherGenerator.generateBatch(objectInfo.getName(), fieldInfo.getName(), fieldInfo.getMethod());
+		}
+		else if (fieldInfo.useDefaultFetcher()) {
+			kind = BindingKind.GETTER;
+			fetcher = fetcherGenerator.generateGetter(fieldInfo.getMethod());
+		}
+		else {
+			kind = BindingKind.FIELD;
+			fetcher = fetcherGenerator.generate(fieldInfo.getMethod());
+		}
+		fetcher = fetcherGenerator.withMetrics(fetcher, objectInfo.getName(), fieldInfo.getName(), null, kind == BindingKind.GETTER);
+		GeneratedTypes generatedTypes = typeGenerator.getGeneratedTypes();
+		generatedTypes.registerBinding(
+				new SchemaSnapshot.Binding(kind, objectInfo.getName(), fieldInfo.getName(), null, fieldInfo.getMethod()));
+		if (fetcher != null) {
+			generatedTypes.registerDataFetcher(objectInfo.getName(), fieldInfo.getName(), fetcher);
+		}
+		generatedTypes.registerPropertyName(objectInfo.getName(), fieldInfo.getName(), fieldInfo.getPropertyName());
+		FieldCost fieldCost = FieldCost.of(fieldInfo.getMethod());
+		if (fieldCost != null) {
+			generatedTypes.registerFieldCost(objectInfo.getName(), fieldInfo.getName(), fieldCost);
 		}
 		return fieldDef;
 	}
@@ -15,100 +15,402 @@
  */
 package revdels.graphql.code1st.schemagen;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.dataloader.DataLoaderRegistry;
+
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
 import graphql.schema.GraphQLCodeRegistry;
 import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLObjectType;
-import graphql.schema.GraphQLObjectType.Builder;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.SchemaPrinter;
+import graphql.schema.idl.TypeRuntimeWiring;
 import revdels.graphql.code1st.annotations.GraphQLMutation;
+import revdels.graphql.code1st.annotations.GraphQLParam;
 import revdels.graphql.code1st.annotations.GraphQLQuery;
 import revdels.graphql.code1st.annotations.GraphQLSubscription;
 import revdels.graphql.code1st.api.GraphQLSchemaGenerator;
-import revdels.graphql.code1st.fetchers.GenericDataFetcher;
+import revdels.graphql.code1st.api.InvocationMode;
+import revdels.graphql.code1st.execution.PreparsedDocumentCache;
+import revdels.graphql.code1st.fetchers.ResultCache;
+import revdels.graphql.code1st.instrumentation.FieldCost;
+import revdels.graphql.code1st.instrumentation.QueryCostInstrumentation;
+import revdels.graphql.code1st.metrics.MetricsRecorder;
+import revdels.graphql.code1st.scalars.NonStandardScalars;
+import revdels.graphql.code1st.schemagen.SchemaSnapshot.BindingKind;
 import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
 
 public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
 	
-	private GraphQLCodeRegistry.Builder codeRegistryBuilder;
-	private GraphQLObjectType.Builder queryBuilder;
-	private GraphQLObjectType.Builder mutationBuilder;
-	private GraphQLObjectType.Builder subscriptionBuilder;
-	private GraphQLObjectType query;
-	private GraphQLObjectType mutation;
-	private GraphQLObjectType subscription;
-	private Map<String, GenericDataFetcher> queryDataFetchers = new HashMap<>();
-	private Map<String, GenericDataFetcher> mutationDataFetchers = new HashMap<>();
-	private Map<String, GenericDataFetcher> subscriptionDataFetchers = new HashMap<>();
 	private GeneratedTypes generatedTypes;
+	private Map<String, Object> controllers = new LinkedHashMap<>();
+	private Map<String, Object> pendingControllers = new LinkedHashMap<>();
+	private Map<String, List<RootField>> rootFields = new LinkedHashMap<>();
+	private GraphQLSchema schema;
+	private volatile GraphQLSchema lastSchema;
+	private volatile Map<FieldCoordinates, FieldCost> fieldCosts = Collections.emptyMap();
+	private Path snapshotPath;
+	private boolean compiledSchema;
+	private boolean controllersGenerated;
+	private boolean controllersRemoved;
 	
 	private GraphQLTypeGenerator typeGenerator;
 
+	private static final ClassValue<GeneratedSchema> GENERATED_SCHEMAS = new ClassValue<GeneratedSchema>() {
+		@Override
+		protected GeneratedSchema computeValue(Class<?> type) {
+			String name = type.getName();
+			int packageEnd = name.lastIndexOf('.') + 1;
+			String schemaClassName = name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_')
+					+ GeneratedSchema.CLASS_SUFFIX;
+			try {
+				return (GeneratedSchema) Class.forName(schemaClassName, true, type.getClassLoader()).getConstructor().newInstance();
+			}
+			catch (ClassNotFoundException | LinkageError e) {
+				return null;
+			}
+			catch (ReflectiveOperationException | ClassCastException e) {
+				throw new IllegalStateException("Cannot instantiate generated schema for " + type.getName(), e);
+			}
+		}
+	};
+
+	/**
+	 * A generated root field with its data fetcher.
+	 */
+	private static class RootField {
+		private final GraphQLFieldDefinition definition;
+		private final DataFetcher<?> fetcher;
+		private final SchemaSnapshot.Binding binding;
+		private final FieldCost cost;
+
+		RootField(GraphQLFieldDefinition definition, DataFetcher<?> fetcher, SchemaSnapshot.Binding binding, Method method) {
+			this.definition = definition;
+			this.fetcher = fetcher;
+			this.binding = binding;
+			this.cost = FieldCost.of(method);
+		}
+	}
+
 	public GraphQLSchemaGeneratorImpl() {
-	    this.codeRegistryBuilder = GraphQLCodeRegistry.newCodeRegistry();
 	    this.generatedTypes = new GeneratedTypes();
-	    this.typeGenerator = GraphQLTypeGeneratorImpl.newTypeGenerator(codeRegistryBuilder, generatedTypes);
+	    this.typeGenerator = GraphQLTypeGeneratorImpl.newTypeGenerator(generatedTypes);
 	}
 	
 	@Override
-	public GraphQLSchema generate() {
-		if (queryBuilder != null) {
-			query = queryBuilder.build();
-			query.getFieldDefinitions().forEach(this::registerQueryDataFetcher);
+	public synchronized GraphQLSchema generate() {
+		lastSchema = generate(null);
+		return lastSchema;
+	}
+
+	@Override
+	public synchronized GraphQLSchema generateParallel(Executor executor) {
+		lastSchema = generate(executor);
+		return lastSchema;
+	}
+
+	private GraphQLSchema generate(Executor executor) {
+		if (snapshotPath != null && !controllersGenerated) {
+			GraphQLSchema snapshotSchema = loadSnapshot();
+			if (snapshotSchema != null) {
+				return snapshotSchema;
+			}
+		}
+		if (compiledSchema && snapshotPath == null) {
+			GraphQLSchema generatedSchema = loadGeneratedSchema();
+			if (generatedSchema != null) {
+				return generatedSchema;
+			}
 		}
-		if (mutationBuilder != null) {
-			mutation = mutationBuilder.build();
-			mutation.getFieldDefinitions().forEach(this::registerMutationDataFetcher);
+		if (controllersRemoved) {
+			// before generating the pending controllers, so a replaced controller
+			// may bring other classes for the names of the types only it used
+			Set<String> typeNames = generatedTypes.retainReachable(getRootFieldDefinitions());
+			typeGenerator.getFetcherGenerator().retainBatchLoaders(typeNames);
+			controllersRemoved = false;
 		}
-		if (subscriptionBuilder != null) {
-			subscription = subscriptionBuilder.build();
-			subscription.getFieldDefinitions().forEach(this::registerSubscriptionDataFetcher);			
+		generatePendingControllers(executor);
+		generateDeferredTypes(executor);
+		controllersGenerated = true;
+		schema = buildSchema();
+		if (snapshotPath != null) {
+			writeSnapshot(schema);
 		}
-		return GraphQLSchema.newSchema()
-			.query(query)
-    		.mutation(mutation)
-    		.subscription(subscription)
-			.codeRegistry(codeRegistryBuilder.build())
-    		.build();
+		return schema;
+	}
+
+	/**
+	 * Generates the root fields of the controllers added since the last
+	 * generation, one task per method. The type registry is shared by the
+	 * tasks; the root fields are added in controller and method order, so the
+	 * schema is the same as a sequential generation.
+	 */
+	private void generatePendingControllers(Executor executor) {
+		Map<String, List<Supplier<RootField>>> tasks = new LinkedHashMap<>();
+		pendingControllers.forEach((name, controller) -> tasks.put(name, controllerTasks(name, controller)));
+		pendingControllers.clear();
+		if (executor == null) {
+			tasks.forEach((name, controllerTasks) -> rootFields.put(name,
+					controllerTasks.stream().map(Supplier::get).collect(Collectors.toList())));
+			return;
+		}
+		Map<String, List<CompletableFuture<RootField>>> futures = new LinkedHashMap<>();
+		tasks.forEach((name, controllerTasks) -> futures.put(name, controllerTasks.stream()
+				.map(task -> CompletableFuture.supplyAsync(task, executor))
+				.collect(Collectors.toList())));
+		futures.forEach((name, controllerFutures) -> rootFields.put(name,
+				controllerFutures.stream().map(GraphQLSchemaGeneratorImpl::join).collect(Collectors.toList())));
+	}
+
+	/**
+	 * Generates the object types deferred beyond the lazy depth, batch by
+	 * batch, since a deferred type can defer the types it reaches in turn.
+	 */
+	private void generateDeferredTypes(Executor executor) {
+		List<Runnable> generators;
+		while (!(generators = typeGenerator.takeDeferredTypes()).isEmpty()) {
+			if (executor == null) {
+				generators.forEach(Runnable::run);
+			}
+			else {
+				generators.stream()
+						.map(generator -> CompletableFuture.runAsync(generator, executor))
+						.collect(Collectors.toList())
+						.forEach(GraphQLSchemaGeneratorImpl::join);
+			}
+		}
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Builds the root types from the root fields of all controllers. The
+	 * generated types and their fetchers are reused as they are; after the
+	 * first generation the previous schema is transformed, so a schema that
+	 * is still executing requests is never modified.
+	 */
+	private GraphQLSchema buildSchema() {
+		GraphQLObjectType query = buildRootType("Query", BindingKind.QUERY);
+		GraphQLObjectType mutation = buildRootType("Mutation", BindingKind.MUTATION);
+		GraphQLObjectType subscription = buildRootType("Subscription", BindingKind.SUBSCRIPTION);
+		GraphQLCodeRegistry.Builder codeRegistryBuilder = GraphQLCodeRegistry.newCodeRegistry();
+		getRootFields().forEach(rootField -> codeRegistryBuilder.dataFetcher(
+				FieldCoordinates.coordinates(rootField.binding.getTypeName(), rootField.definition.getName()),
+				rootField.fetcher));
+		generatedTypes.getDataFetchers().forEach(codeRegistryBuilder::dataFetcher);
+		GraphQLCodeRegistry codeRegistry = codeRegistryBuilder.build();
+		Map<FieldCoordinates, FieldCost> costs = new HashMap<>(generatedTypes.getFieldCosts());
+		getRootFields().stream()
+				.filter(rootField -> rootField.cost != null)
+				.forEach(rootField -> costs.put(
+						FieldCoordinates.coordinates(rootField.binding.getTypeName(), rootField.definition.getName()),
+						rootField.cost));
+		fieldCosts = costs;
+		Set<GraphQLType> definitions = generatedTypes.getDefinitions();
+		if (schema == null) {
+			return GraphQLSchema.newSchema()
+				.query(query)
+	    		.mutation(mutation)
+	    		.subscription(subscription)
+				.codeRegistry(codeRegistry)
+				.additionalTypes(definitions)
+	    		.build();
+		}
+		return schema.transform(builder -> builder
+				.query(query)
+				.mutation(mutation)
+				.subscription(subscription)
+				.codeRegistry(codeRegistry)
+				.clearAdditionalTypes()
+				.additionalTypes(definitions));
+	}
+
+	private GraphQLObjectType buildRootType(String name, BindingKind kind) {
+		List<GraphQLFieldDefinition> fields = getRootFields().stream()
+				.filter(rootField -> rootField.binding.getKind() == kind)
+				.map(rootField -> rootField.definition)
+				.collect(Collectors.toList());
+		if (fields.isEmpty()) {
+			return null;
+		}
+		return GraphQLObjectType.newObject()
+				.name(name)
+				.fields(fields)
+				.build();
+	}
+
+	private List<RootField> getRootFields() {
+		return rootFields.values().stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	private List<GraphQLFieldDefinition> getRootFieldDefinitions() {
+		return getRootFields().stream().map(rootField -> rootField.definition).collect(Collectors.toList());
 	}
 	
 	@Override
-	public void addController(String name, Object controller) {
+	public DataLoaderRegistry newDataLoaderRegistry() {
+		return typeGenerator.getFetcherGenerator().newDataLoaderRegistry();
+	}
+
+	@Override
+	public QueryCostInstrumentation newQueryCostInstrumentation(int maxCost) {
+		return new QueryCostInstrumentation(maxCost, fieldCosts);
+	}
+
+	@Override
+	public PreparsedDocumentCache newPreparsedDocumentCache(long maxWeight) {
+		GraphQLSchema generated = lastSchema;
+		if (generated == null) {
+			throw new IllegalStateException("Generate the schema before creating a document cache");
+		}
+		return new PreparsedDocumentCache(generated, maxWeight);
+	}
+
+	@Override
+	public ResultCache getResultCache() {
+		return typeGenerator.getFetcherGenerator().getResultCache();
+	}
+
+	@Override
+	public void setInvocationMode(InvocationMode invocationMode) {
+		typeGenerator.getFetcherGenerator().setInvocationMode(invocationMode);
+	}
+
+	@Override
+	public void setTrivialGetters(boolean trivialGetters) {
+		typeGenerator.getFetcherGenerator().setTrivialGetters(trivialGetters);
+	}
+
+	@Override
+	public void setOffload(boolean offload) {
+		typeGenerator.getFetcherGenerator().setOffload(offload);
+	}
+
+	@Override
+	public void setOffloadExecutor(Executor executor) {
+		typeGenerator.getFetcherGenerator().setOffloadExecutor(executor);
+	}
+
+	@Override
+	public void shutdownOffloadExecutor() {
+		typeGenerator.getFetcherGenerator().shutdownOffloadExecutor();
+	}
+
+	@Override
+	public void setLazyDepth(int depth) {
+		typeGenerator.setLazyDepth(depth);
+	}
+
+	@Override
+	public void setMaxPageSize(int maxPageSize) {
+		typeGenerator.setMaxPageSize(maxPageSize);
+	}
+
+	@Override
+	public void setMaxListSize(int maxListSize) {
+		typeGenerator.getFetcherGenerator().setMaxListSize(maxListSize);
+	}
+
+	@Override
+	public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+		typeGenerator.getFetcherGenerator().setMetricsRecorder(metricsRecorder);
+	}
+
+	@Override
+	public void setGetterMetrics(boolean getterMetrics) {
+		typeGenerator.getFetcherGenerator().setGetterMetrics(getterMetrics);
+	}
+
+	@Override
+	public void setSnapshot(Path path) {
+		this.snapshotPath = path;
+	}
+
+	@Override
+	public void setCompiledSchema(boolean compiledSchema) {
+		this.compiledSchema = compiledSchema;
+	}
+
+	@Override
+	public synchronized void addController(String name, Object controller) {
+		if (controllers.containsKey(name)) {
+			removeController(name);
+		}
+		controllers.put(name, controller);
+		pendingControllers.put(name, controller);
+	}
+
+	@Override
+	public synchronized void removeController(String name) {
+		controllers.remove(name);
+		pendingControllers.remove(name);
+		if (rootFields.remove(name) != null) {
+			controllersRemoved = true;
+		}
+	}
+
+	private List<Supplier<RootField>> controllerTasks(String name, Object controller) {
+		List<Supplier<RootField>> tasks = new ArrayList<>();
 		Class<?> type = controller.getClass();
 		for (Method method : type.getMethods()) {
 			GraphQLQuery queryAnnotation = method.getAnnotation(GraphQLQuery.class);
 			if (queryAnnotation != null) {
-				generateQuery(queryAnnotation,controller,  method);
+				tasks.add(() -> generateQuery(queryAnnotation, name, controller, method));
 			}
 			GraphQLMutation mutationAnnotation = method.getAnnotation(GraphQLMutation.class);
 			if (mutationAnnotation != null) {
-				generateMutation(mutationAnnotation, controller, method);
+				tasks.add(() -> generateMutation(mutationAnnotation, name, controller, method));
 			}
 			GraphQLSubscription subscriptionAnnotation = method.getAnnotation(GraphQLSubscription.class);
 			if (subscriptionAnnotation != null) {
-				generateSubscription(subscriptionAnnotation, controller, method);
+				tasks.add(() -> generateSubscription(subscriptionAnnotation, name, controller, method));
 			}
 		}
+		return tasks;
 	}
 
-	private void registerQueryDataFetcher(GraphQLFieldDefinition fieldDefinition) {
-		String name = fieldDefinition.getName();
-		codeRegistryBuilder.dataFetcher(query, fieldDefinition, queryDataFetchers.get(name));
-	}
-	
-	private void registerMutationDataFetcher(GraphQLFieldDefinition fieldDefinition) {
-		String name = fieldDefinition.getName();
-		codeRegistryBuilder.dataFetcher(mutation, fieldDefinition, mutationDataFetchers.get(name));
-	}
-	
-	private void registerSubscriptionDataFetcher(GraphQLFieldDefinition fieldDefinition) {
-		String name = fieldDefinition.getName();
-		codeRegistryBuilder.dataFetcher(subscription, fieldDefinition, subscriptionDataFetchers.get(name));
-	}
-	
-	private void generateQuery(GraphQLQuery queryAnnotation, Object controller, Method method) {
+	private RootField generateQuery(GraphQLQuery queryAnnotation, String controllerName, Object controller, Method method) {
 		String name = queryAnnotation.name();
 		if (name.isEmpty()) {
 			name = method.getName();
@@ -116,7 +418,7 @@ public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
 		GraphQLOutputType type = typeGenerator.generateOutputType(method.getGenericReturnType());
 		String description = queryAnnotation.description();
 		if (description.isEmpty()) {
-			description = String.format("%s: enter %s value", name, type.toString());
+			description = String.format("%s: enter %s value", name, GraphQLTypeUtil.simplePrint(type));
 		}
 		GraphQLFieldDefinition queryField = GraphQLFieldDefinition.newFieldDefinition()
     		.name(name)
@@ -124,14 +426,14 @@ public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
     		.description(description)
     		.arguments(typeGenerator.genInputArguments(method))
     		.build();
-    	if (queryBuilder == null) {
-    		queryBuilder = createQueryBuilder();
-    	}
-    	queryBuilder.field(queryField);
-    	queryDataFetchers.put(name,  new GenericDataFetcher(generatedTypes, controller, method));
+		GraphQLFetcherGenerator fetcherGenerator = typeGenerator.getFetcherGenerator();
+    	return new RootField(queryField,
+    			fetcherGenerator.withMetrics(fetcherGenerator.withCache(fetcherGenerator.generate(controller, method), name, method),
+    					"Query", name, controllerName, false),
+    			new SchemaSnapshot.Binding(BindingKind.QUERY, "Query", name, controllerName, method), method);
 	}
 	
-	private void generateMutation(GraphQLMutation mutationAnnotation, Object controller, Method method) {
+	private RootField generateMutation(GraphQLMutation mutationAnnotation, String controllerName, Object controller, Method method) {
 		String name = mutationAnnotation.name();
 		if (name.isEmpty()) {
 			name = method.getName();
@@ -139,7 +441,7 @@ public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
 		GraphQLOutputType type = typeGenerator.generateOutputType(method.getGenericReturnType());
 		String description = mutationAnnotation.description();
 		if (description.isEmpty()) {
-			description = String.format("%s: enter %s value", name, type.toString());
+			description = String.format("%s: enter %s value", name, GraphQLTypeUtil.simplePrint(type));
 		}
     	GraphQLFieldDefinition mutationField = GraphQLFieldDefinition.newFieldDefinition()
     		.name(name)
@@ -147,14 +449,13 @@ public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
        		.description(description)
     		.arguments(typeGenerator.genInputArguments(method))
        	    .build();
-    	if (mutationBuilder == null) {
-    		mutationBuilder = createMutationBuilder();
-    	}
-    	mutationBuilder.field(mutationField);
-    	mutationDataFetchers.put(name,  new GenericDataFetcher(generatedTypes, controller, method));
+		GraphQLFetcherGenerator fetcherGenerator = typeGenerator.getFetcherGenerator();
+    	return new RootField(mutationField,
+    			fetcherGenerator.withMetrics(fetcherGenerator.generate(controller, method), "Mutation", name, controllerName, false),
+    			new SchemaSnapshot.Binding(BindingKind.MUTATION, "Mutation", name, controllerName, method), method);
 	}
 	
-	private void generateSubscription(GraphQLSubscription mutationAnnotation, Object controller, Method method) {
+	private RootField generateSubscription(GraphQLSubscription mutationAnnotation, String controllerName, Object controller, Method method) {
 		String name = mutationAnnotation.name();
 		if (name.isEmpty()) {
 			name = method.getName();
@@ -162,7 +463,7 @@ public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
 		GraphQLOutputType type = typeGenerator.generateSubscriptionType(method.getGenericReturnType());
 		String description = mutationAnnotation.description();
 		if (description.isEmpty()) {
-			description = String.format("%s: enter %s value", name, type.toString());
+			description = String.format("%s: enter %s value", name, GraphQLTypeUtil.simplePrint(type));
 		}
     	GraphQLFieldDefinition subscriptionField = GraphQLFieldDefinition.newFieldDefinition()
     		.name(name)
@@ -170,28 +471,217 @@ public class GraphQLSchemaGeneratorImpl implements GraphQLSchemaGenerator {
        		.description(description)
     		.arguments(typeGenerator.genInputArguments(method))
        	    .build();
-    	if (subscriptionBuilder == null) {
-    		subscriptionBuilder = createSubscriptionBuilder();
-    	}
-    	subscriptionBuilder.field(subscriptionField);
-    	subscriptionDataFetchers.put(name,  new GenericDataFetcher(generatedTypes, controller, method));
+		GraphQLFetcherGenerator fetcherGenerator = typeGenerator.getFetcherGenerator();
+    	return new RootField(subscriptionField, fetcherGenerator.generateSubscription(controller, method, name),
+    			new SchemaSnapshot.Binding(BindingKind.SUBSCRIPTION, "Subscription", name, controllerName, method), method);
 	}
 
 
 
-	private  GraphQLObjectType.Builder createQueryBuilder() {
-		return GraphQLObjectType.newObject()
- 	    		.name("Query");		
+	/**
+	 * Rebuilds the schema from the snapshot SDL and binding table when the
+	 * fingerprint of the participating classes still matches. Returns null
+	 * when the snapshot is missing or stale.
+	 */
+	private GraphQLSchema loadSnapshot() {
+		SchemaSnapshot snapshot;
+		try {
+			snapshot = SchemaSnapshot.read(snapshotPath);
+		}
+		catch (IOException e) {
+			return null;
+		}
+		ClassLoader loader = getClassLoader();
+		if (snapshot == null
+				|| !Arrays.equals(snapshot.getFingerprint(), SchemaSnapshot.fingerprint(getControllerClasses(), snapshot.getClassNames(), loader))) {
+			return null;
+		}
+		return buildExecutableSchema(snapshot.getSdl(), snapshot.getEnumTypes(), snapshot.getBindings(), loader, false);
 	}
 
-	private Builder createMutationBuilder() {
-		return GraphQLObjectType.newObject()
- 	    		.name("Mutation");
+	/**
+	 * Builds the schema from the SDL and bindings generated by the annotation
+	 * processor when every controller has them. Returns null when one has
+	 * none, when two controllers generated a type differently, or when the
+	 * parameter names the processor saw are not available at runtime.
+	 */
+	private GraphQLSchema loadGeneratedSchema() {
+		if (controllers.isEmpty()) {
+			return null;
+		}
+		Map<String, String[]> types = new LinkedHashMap<>();
+		Map<String, String> enumTypes = new TreeMap<>();
+		Map<String, List<String>> rootFieldDefinitions = new LinkedHashMap<>();
+		Set<String> rootFieldNames = new HashSet<>();
+		Map<String, SchemaSnapshot.Binding> bindings = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> controller : controllers.entrySet()) {
+			GeneratedSchema generated = GENERATED_SCHEMAS.get(controller.getValue().getClass());
+			if (generated == null) {
+				return null;
+			}
+			for (String[] type : generated.types()) {
+				String[] defined = types.putIfAbsent(type[1], type);
+				if (defined != null && !Arrays.equals(defined, type)) {
+					return null;
+				}
+				if ("enum".equals(type[0])) {
+					enumTypes.put(type[1], type[2]);
+				}
+			}
+			for (String[] rootField : generated.rootFields()) {
+				if (!rootFieldNames.add(rootField[0] + "." + rootField[1])) {
+					return null;
+				}
+				rootFieldDefinitions.computeIfAbsent(rootField[0], name -> new ArrayList<>()).add(rootField[2]);
+			}
+			for (String[] binding : generated.bindings()) {
+				BindingKind kind = BindingKind.valueOf(binding[0]);
+				boolean root = kind == BindingKind.QUERY || kind == BindingKind.MUTATION || kind == BindingKind.SUBSCRIPTION;
+				bindings.putIfAbsent(binding[1] + "." + binding[2], new SchemaSnapshot.Binding(kind, binding[1], binding[2],
+						root ? controller.getKey() : null, binding[3], binding[4], Arrays.asList(binding).subList(5, binding.length)));
+			}
+		}
+		StringBuilder sdl = new StringBuilder();
+		for (String rootType : new String[] { "Query", "Mutation", "Subscription" }) {
+			List<String> fields = rootFieldDefinitions.get(rootType);
+			if (fields != null) {
+				sdl.append("type ").append(rootType).append(" {\n  ").append(String.join("\n  ", fields)).append("\n}\n\n");
+			}
+		}
+		types.values().forEach(type -> sdl.append(type[3]).append("\n\n"));
+		return buildExecutableSchema(sdl.toString(), enumTypes, new ArrayList<>(bindings.values()), getClassLoader(), true);
 	}
 
-	private Builder createSubscriptionBuilder() {
-		return GraphQLObjectType.newObject()
- 	    		.name("Subscription");
+	/**
+	 * Parses the SDL and wires the fetchers of the bound methods, like the
+	 * generated types would have them. Returns null when a bound class or
+	 * method cannot be resolved or, if required, lacks parameter names.
+	 */
+	private GraphQLSchema buildExecutableSchema(String sdl, Map<String, String> enumTypes, List<SchemaSnapshot.Binding> bindings,
+			ClassLoader loader, boolean parameterNames) {
+		List<Method> methods = new ArrayList<>();
+		RuntimeWiring.Builder wiring = RuntimeWiring.newRuntimeWiring()
+				.scalar(Scalars.GraphQLLong)
+				.scalar(NonStandardScalars.GraphQLInstant);
+		try {
+			for (SchemaSnapshot.Binding binding : bindings) {
+				Method method = binding.resolve(loader);
+				if (parameterNames && !hasParameterNames(method)) {
+					return null;
+				}
+				methods.add(method);
+			}
+			for (Map.Entry<String, String> enumType : enumTypes.entrySet()) {
+				Map<String, Object> values = new HashMap<>();
+				ClassMetadata.of(Class.forName(enumType.getValue(), false, loader)).getEnumValues()
+						.forEach(value -> values.put(value.getLabel(), value.getValue()));
+				wiring.type(TypeRuntimeWiring.newTypeWiring(enumType.getKey()).enumValues(values::get));
+			}
+		}
+		catch (ReflectiveOperationException e) {
+			return null;
+		}
+		GraphQLFetcherGenerator fetcherGenerator = typeGenerator.getFetcherGenerator();
+		GraphQLCodeRegistry.Builder codeRegistryBuilder = GraphQLCodeRegistry.newCodeRegistry();
+		Map<FieldCoordinates, FieldCost> costs = new HashMap<>();
+		for (int i = 0; i < methods.size(); i++) {
+			SchemaSnapshot.Binding binding = bindings.get(i);
+			Method method = methods.get(i);
+			DataFetcher<?> fetcher;
+			switch (binding.getKind()) {
+				case QUERY:
+					fetcher = fetcherGenerator.withCache(fetcherGenerator.generate(controllers.get(binding.getControllerName()), method),
+							binding.getFieldName(), method);
+					break;
+				case MUTATION:
+					fetcher = fetcherGenerator.generate(controllers.get(binding.getControllerName()), method);
+					break;
+				case SUBSCRIPTION:
+					fetcher = fetcherGenerator.generateSubscription(controllers.get(binding.getControllerName()), method, binding.getFieldName());
+					break;
+				case BATCH:
+					fetcher = fetcherGenerator.generateBatch(binding.getTypeName(), binding.getFieldName(), method);
+					break;
+				case GETTER:
+					fetcher = fetcherGenerator.generateGetter(method);
+					break;
+				case FIELD:
+				default:
+					fetcher = fetcherGenerator.generate(method);
+					break;
+			}
+			if (binding.getControllerName() == null) {
+				generatedTypes.registerPropertyName(binding.getTypeName(), binding.getFieldName(),
+						new GraphQLAbstractObjectGenerator.FieldInfo(method).getPropertyName());
+			}
+			if (binding.getKind() != BindingKind.SUBSCRIPTION) {
+				fetcher = fetcherGenerator.withMetrics(fetcher, binding.getTypeName(), binding.getFieldName(),
+						binding.getControllerName(), binding.getKind() == BindingKind.GETTER);
+			}
+			FieldCoordinates coordinates = FieldCoordinates.coordinates(binding.getTypeName(), binding.getFieldName());
+			if (fetcher != null) {
+				codeRegistryBuilder.dataFetcher(coordinates, fetcher);
+			}
+			FieldCost cost = FieldCost.of(method);
+			if (cost != null) {
+				costs.put(coordinates, cost);
+			}
+		}
+		fieldCosts = costs;
+		wiring.codeRegistry(codeRegistryBuilder.build());
+		return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(sdl), wiring.build());
+	}
+
+	/**
+	 * Whether the arguments are named at runtime as the processor named them:
+	 * compiled with -parameters or named by @GraphQLParam.
+	 */
+	private static boolean hasParameterNames(Method method) {
+		for (Parameter parameter : method.getParameters()) {
+			GraphQLParam paramAnnotation = parameter.getAnnotation(GraphQLParam.class);
+			if (!parameter.isNamePresent() && (paramAnnotation == null || paramAnnotation.name().isEmpty())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void writeSnapshot(GraphQLSchema schema) {
+		Set<String> classNames = new TreeSet<>();
+		Map<String, String> enumTypes = new TreeMap<>();
+		getControllerClasses().values().forEach(type -> classNames.add(type.getName()));
+		generatedTypes.getTypes().forEach((name, type) -> {
+			classNames.add(type.getName());
+			if (type.isEnum()) {
+				enumTypes.put(name, type.getName());
+			}
+		});
+		String sdl = new SchemaPrinter(SchemaPrinter.Options.defaultOptions()
+				.includeScalarTypes(true)
+				.includeDirectives(false))
+				.print(schema);
+		byte[] fingerprint = SchemaSnapshot.fingerprint(getControllerClasses(), classNames, getClassLoader());
+		List<SchemaSnapshot.Binding> bindings = new ArrayList<>();
+		getRootFields().forEach(rootField -> bindings.add(rootField.binding));
+		bindings.addAll(generatedTypes.getBindings());
+		try {
+			new SchemaSnapshot(fingerprint, sdl, classNames, enumTypes, bindings).write(snapshotPath);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Cannot write schema snapshot " + snapshotPath, e);
+		}
+	}
+
+	private Map<String, Class<?>> getControllerClasses() {
+		Map<String, Class<?>> controllerClasses = new TreeMap<>();
+		controllers.forEach((name, controller) -> controllerClasses.put(name, controller.getClass()));
+		return controllerClasses;
+	}
+
+	private ClassLoader getClassLoader() {
+		return controllers.isEmpty()
+				? GraphQLSchemaGeneratorImpl.class.getClassLoader()
+				: controllers.values().iterator().next().getClass().getClassLoader();
 	}
 
 }
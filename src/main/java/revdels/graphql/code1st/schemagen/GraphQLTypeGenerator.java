@@ -18,10 +18,13 @@ package revdels.graphql.code1st.schemagen;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.function.Supplier;
 
 import graphql.schema.GraphQLArgument;
 import graphql.schema.GraphQLInputType;
 import graphql.schema.GraphQLOutputType;
+import revdels.graphql.code1st.fetchers.ArgumentPlan;
+import revdels.graphql.code1st.fetchers.InputBinder;
 
 public interface GraphQLTypeGenerator {
 
@@ -35,6 +38,37 @@ public interface GraphQLTypeGenerator {
 
 	List<GraphQLArgument> genInputArguments(Method method);
 
+	List<GraphQLArgument> genInputArguments(Method method, int firstParameter);
+
+	InputBinder generateInputBinder(Type type);
+
+	ArgumentPlan genArgumentPlan(Method method);
+
+	ArgumentPlan genArgumentPlan(Method method, int firstParameter);
+
 	GeneratedTypes getGeneratedTypes();
 
+	void setLazyDepth(int lazyDepth);
+
+	void setMaxPageSize(int maxPageSize);
+
+	/**
+	 * Queues the generator of an object type nested deeper than the lazy
+	 * depth and returns true; returns false when the type is to be generated
+	 * now.
+	 */
+	boolean deferType(Runnable generator);
+
+	/**
+	 * Generates an object type one level deeper than the current one.
+	 */
+	<T> T generateNested(Supplier<T> generator);
+
+	/**
+	 * Removes and returns the generators queued by deferType.
+	 */
+	List<Runnable> takeDeferredTypes();
+
+	GraphQLFetcherGenerator getFetcherGenerator();
+
 }
\ No newline at end of file
@@ -15,26 +15,44 @@
  */
 package revdels.graphql.code1st.schemagen;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Publisher;
+
 
 import graphql.Scalars;
+import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLArgument;
-import graphql.schema.GraphQLCodeRegistry;
 import graphql.schema.GraphQLEnumType;
-import graphql.schema.GraphQLEnumType.Builder;
 import revdels.graphql.code1st.annotations.GraphQLEnum;
-import revdels.graphql.code1st.annotations.GraphQLEnumValue;
-import revdels.graphql.code1st.annotations.GraphQLParam;
+import revdels.graphql.code1st.api.Page;
+import revdels.graphql.code1st.api.PageRequest;
+import revdels.graphql.code1st.api.Projection;
 import revdels.graphql.code1st.exceptions.UnsuportedTypeException;
+import revdels.graphql.code1st.fetchers.ArgumentPlan;
+import revdels.graphql.code1st.fetchers.EnumInputBinder;
+import revdels.graphql.code1st.fetchers.InputBinder;
+import revdels.graphql.code1st.fetchers.ListInputBinder;
+import revdels.graphql.code1st.fetchers.PageRequestBinder;
+import revdels.graphql.code1st.fetchers.ParameterBinder;
+import revdels.graphql.code1st.fetchers.ProjectionBinder;
+import revdels.graphql.code1st.fetchers.ScalarInputBinder;
 import revdels.graphql.code1st.scalars.NonStandardScalars;
+import revdels.graphql.code1st.schemagen.ClassMetadata.ParameterInfo;
 import graphql.schema.GraphQLInputType;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLOutputType;
@@ -47,11 +65,19 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	private GeneratedTypes generatedTypes;
 	private GraphQLOutputObjectGenerator outputObjectGenerator;
 	private GraphQLInputObjectGenerator inputObjectGenerator;
+	private GraphQLFetcherGenerator fetcherGenerator;
+	private GraphQLConnectionGenerator connectionGenerator;
+	private volatile int maxPageSize = 100;
+	private volatile int lazyDepth = Integer.MAX_VALUE;
+	private final ThreadLocal<int[]> objectDepth = ThreadLocal.withInitial(() -> new int[1]);
+	private final Queue<Runnable> deferredTypes = new ConcurrentLinkedQueue<>();
 	
-	public GraphQLTypeGeneratorImpl(GraphQLCodeRegistry.Builder codeRegistryBuilder, GeneratedTypes generatedTypes) {
+	public GraphQLTypeGeneratorImpl(GeneratedTypes generatedTypes) {
 		this.generatedTypes = generatedTypes;
-		outputObjectGenerator = new GraphQLOutputObjectGenerator(this, codeRegistryBuilder);
+		fetcherGenerator = new GraphQLFetcherGenerator(this);
+		outputObjectGenerator = new GraphQLOutputObjectGenerator(this);
 		inputObjectGenerator = new GraphQLInputObjectGenerator(this);
+		connectionGenerator = new GraphQLConnectionGenerator(this);
 	}
 	
 	private interface OutputTypeGenerator {
@@ -63,7 +89,7 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	}
 	
 	private final OutputTypeGenerator[] outputTypeGenerators =  
-		{ this::genOutputList, this::genOutputEnum, this::genScalar, this::genOutputObject};
+		{ this::genOutputFuture, this::genOutputPage, this::genOutputList, this::genOutputEnum, this::genScalar, this::genOutputObject};
 	
 	private final InputTypeGenerator[] inputTypeGenerators =  
 		{ this::genInputList, this::genInputEnum, this::genScalar, this::genInputObject};
@@ -95,13 +121,13 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 		}
 					
 		ParameterizedType ptype = ((ParameterizedType) type);
-		if (! ptype.getRawType().getTypeName().equals("reactor.core.publisher.Flux")) {
+		if (! isPublisher(ptype.getRawType())) {
 			throw new UnsuportedTypeException(type.getTypeName());
 		}
 	
 		Type [] params = ptype.getActualTypeArguments();	
 		if (params == null || params.length == 0) {
-			throw new UnsuportedTypeException("Flux must have parameter");				
+			throw new UnsuportedTypeException("Publisher must have parameter");				
 		}
 		Type publishType = params[0];			
 		
@@ -114,9 +140,76 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	}
 	
 	
+	/**
+	 * Reactive Streams publishers (Reactor, RxJava, Mutiny...) and JDK Flow
+	 * publishers can both back a subscription.
+	 */
+	private boolean isPublisher(Type rawType) {
+		if (! (rawType instanceof Class<?>)) {
+			return false;
+		}
+		Class<?> rawClass = (Class<?>) rawType;
+		return Publisher.class.isAssignableFrom(rawClass) || Flow.Publisher.class.isAssignableFrom(rawClass);
+	}
+	
 	
+	/**
+	 * Asynchronous results: the field gets the type of the future's value and
+	 * graphql-java completes the future returned by the data fetcher.
+	 */
+	private GraphQLOutputType genOutputFuture(Type type) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType ptype = (ParameterizedType) type;
+			if (isFuture(ptype.getRawType())) {
+				return generateOutputType(ptype.getActualTypeArguments()[0]);
+			}
+		}
+		else if (isFuture(type)) {
+			throw new UnsuportedTypeException("CompletionStage must have parameter");
+		}
+		return null;
+	}
+
+	private boolean isFuture(Type type) {
+		return type instanceof Class<?> && CompletionStage.class.isAssignableFrom((Class<?>) type);
+	}
+	
+	/**
+	 * Pages become Relay connections of their node type.
+	 */
+	private GraphQLOutputType genOutputPage(Type type) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType ptype = (ParameterizedType) type;
+			if (ptype.getRawType().equals(Page.class)) {
+				return connectionGenerator.generate(ptype.getActualTypeArguments()[0]);
+			}
+		}
+		else if (Page.class.equals(type)) {
+			throw new UnsuportedTypeException("Page must have parameter");
+		}
+		return null;
+	}
+
+	private boolean isPage(Type type) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType ptype = (ParameterizedType) type;
+			if (isFuture(ptype.getRawType())) {
+				return isPage(ptype.getActualTypeArguments()[0]);
+			}
+			return ptype.getRawType().equals(Page.class);
+		}
+		return false;
+	}
+
 	private enum ListType { INPUT_LIST, OUTPUT_LIST }
 	
+	/**
+	 * Output lists may also be produced lazily; the fetcher reads them.
+	 */
+	private boolean isLazyList(Type rawType) {
+		return rawType.equals(Stream.class) || rawType.equals(Iterable.class) || rawType.equals(Iterator.class);
+	}
+
 	private GraphQLList genOutputList(Type type) {
 		return genList(type, ListType.OUTPUT_LIST);
 	}
@@ -128,7 +221,8 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	private GraphQLList genList(Type type, ListType listType) {
 		if (type instanceof ParameterizedType) {
 			ParameterizedType ptype = (ParameterizedType) type;
-			if (!ptype.getRawType().equals(List.class)) {
+			if (!ptype.getRawType().equals(List.class)
+					&& !(listType == ListType.OUTPUT_LIST && isLazyList(ptype.getRawType()))) {
 				throw new UnsuportedTypeException(type.getTypeName());
 			}
 			Type [] params = ptype.getActualTypeArguments();	
@@ -157,7 +251,8 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	private GraphQLType genEnum(Type type) {
 		if (type instanceof Class<?> && ((Class<?>)type).isEnum()) {
 			Class<?> enumType = (Class<?>) type;
-			GraphQLEnum enumAnnotation = enumType.getAnnotation(GraphQLEnum.class);
+			ClassMetadata metadata = ClassMetadata.of(enumType);
+			GraphQLEnum enumAnnotation = metadata.getEnumAnnotation();
 			String name = enumAnnotation != null ? enumAnnotation.name() : "";
 			if (name.isEmpty()) {
 				name = enumType.getSimpleName();
@@ -172,29 +267,14 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 				description = name;
 			}
 			newEnum.description(description);
-			Arrays.stream(enumType.getEnumConstants()).forEach(val -> enumValue(newEnum, val));
-			return newEnum.build();
+			metadata.getEnumValues().forEach(value -> newEnum.value(value.getLabel(), value.getValue()));
+			GraphQLEnumType enumDefinition = newEnum.build();
+			generatedTypes.registerDefinition(enumDefinition);
+			return enumDefinition;
 		}
 		return null;
 	}
 	
-	private void enumValue(Builder newEnum, Object val) {
-		Class<?> type = val.getClass();
-		String name = ((Enum<?>)val).name();
-		Field field = null;
-		try {
-			field = type.getField(name);
-		} catch (NoSuchFieldException | SecurityException e) {
-			throw new IllegalStateException("Cannot occur");
-		}
-		GraphQLEnumValue annotation = field.getAnnotation(GraphQLEnumValue.class);
-		String label = annotation != null ? annotation.label() : "";
-		if (label.isEmpty()) {
-			label = name;
-		}
-		newEnum.value(label, val);
-	}
-
 	private GraphQLScalarType genScalar(Type type) {
 		switch (type.getTypeName()) {		
 			case "int":
@@ -239,44 +319,88 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	
 	@Override
 	public List<GraphQLArgument> genInputArguments(Method method) {
-		return Arrays.stream(method.getParameters())
+		return genInputArguments(method, 0);
+	}
+	
+	@Override
+	public List<GraphQLArgument> genInputArguments(Method method, int firstParameter) {
+		List<GraphQLArgument> arguments = ClassMetadata.of(method.getDeclaringClass()).getParameters(method).stream()
+				.skip(firstParameter)
+				.filter(parameter -> !parameter.isInjected())
 				.map(this::genInputArgument)
 				.collect(Collectors.toList()
 				);
+		if (isPage(method.getGenericReturnType())) {
+			arguments.add(genPageArgument("first", Scalars.GraphQLInt, "Number of items after the cursor"));
+			arguments.add(genPageArgument("after", Scalars.GraphQLString, "Cursor the page starts after"));
+			arguments.add(genPageArgument("last", Scalars.GraphQLInt, "Number of items before the cursor"));
+			arguments.add(genPageArgument("before", Scalars.GraphQLString, "Cursor the page ends before"));
+		}
+		return arguments;
+	}
+
+	private GraphQLArgument genPageArgument(String name, GraphQLInputType type, String description) {
+		return GraphQLArgument.newArgument()
+			.name(name)
+			.description(description)
+			.type(type)
+			.build();
 	}
 	
-	private GraphQLArgument genInputArgument(Parameter parameter) {
-		String argName = makeArgName(parameter);
-		String argDescription = makeArgDescription(parameter, argName);
-		GraphQLInputType argType = generateInputType(parameter.getParameterizedType());
+	private GraphQLArgument genInputArgument(ParameterInfo parameter) {
+		GraphQLInputType argType = generateInputType(parameter.getType());
 		return GraphQLArgument.newArgument()
-			.name(argName)
-			.description(argDescription)
+			.name(parameter.getName())
+			.description(parameter.getDescription())
 			.type(argType)
 			.build();
 	}
 
 
-	private String makeArgName(Parameter parameter) {
-		GraphQLParam paramAnnotation = parameter.getAnnotation(GraphQLParam.class);
-		if (paramAnnotation != null) {
-			String paramName = paramAnnotation.name();
-			if (! paramName.isEmpty()) {
-				return paramName;
+	@Override
+	public InputBinder generateInputBinder(Type type) {
+		generateInputType(type);
+		if (type instanceof ParameterizedType) {
+			ParameterizedType ptype = (ParameterizedType) type;
+			if (!ptype.getRawType().equals(List.class)) {
+				throw new UnsuportedTypeException(type.getTypeName());
 			}
+			return new ListInputBinder(generateInputBinder(ptype.getActualTypeArguments()[0]));
+		}
+		if (type instanceof Class<?> && ((Class<?>) type).isEnum()) {
+			return new EnumInputBinder();
 		}
-		return parameter.getName();
+		GraphQLScalarType scalarType = genScalar(type);
+		if (scalarType != null) {
+			return new ScalarInputBinder(scalarType.getCoercing());
+		}
+		return generatedTypes.getInputBinder((Class<?>) type);
 	}
 
-	private String makeArgDescription(Parameter parameter, String defaultDescription) {
-		GraphQLParam paramAnnotation = parameter.getAnnotation(GraphQLParam.class);
-		if (paramAnnotation != null) {
-			String paramDescription = paramAnnotation.description();
-			if (! paramDescription.isEmpty()) {
-				return paramDescription;
+	@Override
+	public ArgumentPlan genArgumentPlan(Method method) {
+		return genArgumentPlan(method, 0);
+	}
+
+	@Override
+	public ArgumentPlan genArgumentPlan(Method method, int firstParameter) {
+		List<ParameterBinder> binders = new ArrayList<>();
+		List<ParameterInfo> parameters = ClassMetadata.of(method.getDeclaringClass()).getParameters(method);
+		for (ParameterInfo parameter : parameters.subList(firstParameter, parameters.size())) {
+			if (PageRequest.class.equals(parameter.getType())) {
+				binders.add(new PageRequestBinder(maxPageSize));
+			}
+			else if (Projection.class.equals(parameter.getType())) {
+				binders.add(new ProjectionBinder(generatedTypes, isPage(method.getGenericReturnType())));
+			}
+			else if (parameter.isInjected()) {
+				binders.add(DataFetchingEnvironment::getSelectionSet);
+			}
+			else {
+				binders.add(ArgumentPlan.argument(parameter.getName(), generateInputBinder(parameter.getType())));
 			}
 		}
-		return defaultDescription;
+		return new ArgumentPlan(binders);
 	}
 
 
@@ -288,8 +412,8 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 	}
 
 
-	public static GraphQLTypeGenerator newTypeGenerator(GraphQLCodeRegistry.Builder codeRegistryBuilder, GeneratedTypes generatedTypes) {
-		return new GraphQLTypeGeneratorImpl(codeRegistryBuilder, generatedTypes);
+	public static GraphQLTypeGenerator newTypeGenerator(GeneratedTypes generatedTypes) {
+		return new GraphQLTypeGeneratorImpl(generatedTypes);
 	}
 
 	@Override
@@ -302,4 +426,53 @@ public class GraphQLTypeGeneratorImpl implements GraphQLTypeGenerator {
 		return generatedTypes;
 	}
 
+	@Override
+	public void setMaxPageSize(int maxPageSize) {
+		if (maxPageSize <= 0) {
+			throw new IllegalArgumentException("Maximum page size must be positive");
+		}
+		this.maxPageSize = maxPageSize;
+	}
+
+	@Override
+	public void setLazyDepth(int lazyDepth) {
+		this.lazyDepth = lazyDepth < 0 ? Integer.MAX_VALUE : lazyDepth;
+	}
+
+	@Override
+	public boolean deferType(Runnable generator) {
+		if (objectDepth.get()[0] < lazyDepth) {
+			return false;
+		}
+		deferredTypes.add(generator);
+		return true;
+	}
+
+	@Override
+	public <T> T generateNested(Supplier<T> generator) {
+		int[] depth = objectDepth.get();
+		depth[0]++;
+		try {
+			return generator.get();
+		}
+		finally {
+			depth[0]--;
+		}
+	}
+
+	@Override
+	public List<Runnable> takeDeferredTypes() {
+		List<Runnable> generators = new ArrayList<>();
+		Runnable generator;
+		while ((generator = deferredTypes.poll()) != null) {
+			generators.add(generator);
+		}
+		return generators;
+	}
+
+	@Override
+	public GraphQLFetcherGenerator getFetcherGenerator() {
+		return fetcherGenerator;
+	}
+
 }
\ No newline at end of file
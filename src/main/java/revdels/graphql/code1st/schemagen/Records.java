@@ -0,0 +1,85 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.schemagen;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads record components reflectively, so the library itself can still be
+ * compiled for Java 11.
+ */
+final class Records {
+
+	private Records() {}
+
+	static class Component {
+		private final String name;
+		private final Type genericType;
+		private final Class<?> type;
+		private final Method accessor;
+
+		Component(String name, Type genericType, Class<?> type, Method accessor) {
+			this.name = name;
+			this.genericType = genericType;
+			this.type = type;
+			this.accessor = accessor;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		Type getGenericType() {
+			return genericType;
+		}
+
+		Class<?> getType() {
+			return type;
+		}
+
+		Method getAccessor() {
+			return accessor;
+		}
+	}
+
+	static boolean isRecord(Class<?> clazz) {
+		Class<?> superclass = clazz.getSuperclass();
+		return superclass != null && superclass.getName().equals("java.lang.Record");
+	}
+
+	static List<Component> getComponents(Class<?> clazz) {
+		try {
+			Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(clazz);
+			List<Component> result = new ArrayList<>(components.length);
+			for (Object component : components) {
+				Class<?> componentClass = component.getClass();
+				result.add(new Component(
+						(String) componentClass.getMethod("getName").invoke(component),
+						(Type) componentClass.getMethod("getGenericType").invoke(component),
+						(Class<?>) componentClass.getMethod("getType").invoke(component),
+						(Method) componentClass.getMethod("getAccessor").invoke(component)));
+			}
+			return result;
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot read record components: " + clazz.toString(), e);
+		}
+	}
+
+}
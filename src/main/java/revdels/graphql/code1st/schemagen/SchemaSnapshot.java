@@ -0,0 +1,343 @@
+/**
+ * Copyright 2021 revdels (https://github.com/revdels)
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package revdels.graphql.code1st.schemagen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * On-disk form of a generated schema: the SDL, the binding of field
+ * coordinates to methods, the enum types and the classes the schema was
+ * generated from, with a fingerprint of those classes to detect stale
+ * snapshots.
+ */
+final class SchemaSnapshot {
+
+	private static final int MAGIC = 0x47515353;
+	private static final int VERSION = 1;
+
+	enum BindingKind { QUERY, MUTATION, SUBSCRIPTION, FIELD, GETTER, BATCH }
+
+	/**
+	 * A data fetcher to recreate: the method bound to a field coordinate and,
+	 * for root fields, the name of the controller it is called on.
+	 */
+	static final class Binding {
+		private final BindingKind kind;
+		private final String typeName;
+		private final String fieldName;
+		private final String controllerName;
+		private final String className;
+		private final String methodName;
+		private final List<String> parameterTypes;
+
+		Binding(BindingKind kind, String typeName, String fieldName, String controllerName, Method method) {
+			this(kind, typeName, fieldName, controllerName, method.getDeclaringClass().getName(), method.getName(),
+					Arrays.stream(method.getParameterTypes()).map(Class::getName).collect(Collectors.toList()));
+		}
+
+		Binding(BindingKind kind, String typeName, String fieldName, String controllerName,
+				String className, String methodName, List<String> parameterTypes) {
+			this.kind = kind;
+			this.typeName = typeName;
+			this.fieldName = fieldName;
+			this.controllerName = controllerName;
+			this.className = className;
+			this.methodName = methodName;
+			this.parameterTypes = parameterTypes;
+		}
+
+		Method resolve(ClassLoader loader) throws ReflectiveOperationException {
+			Class<?>[] types = new Class<?>[parameterTypes.size()];
+			for (int i = 0; i < types.length; i++) {
+				types[i] = loadClass(parameterTypes.get(i), loader);
+			}
+			return loadClass(className, loader).getMethod(methodName, types);
+		}
+
+		BindingKind getKind() {
+			return kind;
+		}
+
+		String getTypeName() {
+			return typeName;
+		}
+
+		String getFieldName() {
+			return fieldName;
+		}
+
+		String getControllerName() {
+			return controllerName;
+		}
+	}
+
+	private final byte[] fingerprint;
+	private final String sdl;
+	private final List<String> classNames;
+	private final Map<String, String> enumTypes;
+	private final List<Binding> bindings;
+
+	SchemaSnapshot(byte[] fingerprint, String sdl, Collection<String> classNames, Map<String, String> enumTypes, List<Binding> bindings) {
+		this.fingerprint = fingerprint;
+		this.sdl = sdl;
+		this.classNames = new ArrayList<>(new TreeSet<>(classNames));
+		this.enumTypes = new TreeMap<>(enumTypes);
+		this.bindings = bindings;
+	}
+
+	byte[] getFingerprint() {
+		return fingerprint;
+	}
+
+	String getSdl() {
+		return sdl;
+	}
+
+	List<String> getClassNames() {
+		return Collections.unmodifiableList(classNames);
+	}
+
+	Map<String, String> getEnumTypes() {
+		return Collections.unmodifiableMap(enumTypes);
+	}
+
+	List<Binding> getBindings() {
+		return Collections.unmodifiableList(bindings);
+	}
+
+	/**
+	 * Reads the snapshot file. Returns null when the file does not exist or
+	 * is not a snapshot of this format version. The file is read into memory
+	 * rather than mapped, as a mapping is only released by the garbage
+	 * collector and blocks replacing the file on Windows.
+	 */
+	static SchemaSnapshot read(Path path) throws IOException {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+			if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return null;
+			}
+			byte[] fingerprint = new byte[buffer.getInt()];
+			buffer.get(fingerprint);
+			String sdl = readString(buffer);
+			List<String> classNames = new ArrayList<>();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				classNames.add(readString(buffer));
+			}
+			Map<String, String> enumTypes = new TreeMap<>();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				enumTypes.put(readString(buffer), readString(buffer));
+			}
+			List<Binding> bindings = new ArrayList<>();
+			BindingKind[] kinds = BindingKind.values();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				BindingKind kind = kinds[buffer.get()];
+				String typeName = readString(buffer);
+				String fieldName = readString(buffer);
+				String controllerName = readString(buffer);
+				String className = readString(buffer);
+				String methodName = readString(buffer);
+				List<String> parameterTypes = new ArrayList<>();
+				for (int j = buffer.getInt(); j > 0; j--) {
+					parameterTypes.add(readString(buffer));
+				}
+				bindings.add(new Binding(kind, typeName, fieldName, controllerName.isEmpty() ? null : controllerName,
+						className, methodName, parameterTypes));
+			}
+			return new SchemaSnapshot(fingerprint, sdl, classNames, enumTypes, bindings);
+		}
+		catch (NoSuchFileException e) {
+			return null;
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot to a temporary file next to the target and moves it
+	 * in place, so concurrent readers never see a partial snapshot.
+	 */
+	void write(Path path) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(fingerprint.length);
+			out.write(fingerprint);
+			writeString(out, sdl);
+			out.writeInt(classNames.size());
+			for (String className : classNames) {
+				writeString(out, className);
+			}
+			out.writeInt(enumTypes.size());
+			for (Map.Entry<String, String> enumType : enumTypes.entrySet()) {
+				writeString(out, enumType.getKey());
+				writeString(out, enumType.getValue());
+			}
+			out.writeInt(bindings.size());
+			for (Binding binding : bindings) {
+				out.writeByte(binding.kind.ordinal());
+				writeString(out, binding.typeName);
+				writeString(out, binding.fieldName);
+				writeString(out, binding.controllerName == null ? "" : binding.controllerName);
+				writeString(out, binding.className);
+				writeString(out, binding.methodName);
+				out.writeInt(binding.parameterTypes.size());
+				for (String parameterType : binding.parameterTypes) {
+					writeString(out, parameterType);
+				}
+			}
+		}
+		Path directory = path.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			Files.write(temp, bytes.toByteArray());
+			try {
+				Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * SHA-256 over the controller names and classes and over the signatures,
+	 * parameter names and annotation values of every class the schema was
+	 * generated from. Returns null when one of the classes no longer exists.
+	 */
+	static byte[] fingerprint(Map<String, Class<?>> controllers, Collection<String> classNames, ClassLoader loader) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		StringBuilder description = new StringBuilder();
+		new TreeMap<>(controllers).forEach((name, type) -> description.append("controller ").append(name)
+				.append('=').append(type.getName()).append('\n'));
+		for (String className : new TreeSet<>(classNames)) {
+			try {
+				describe(loadClass(className, loader), description);
+			}
+			catch (ClassNotFoundException | LinkageError e) {
+				return null;
+			}
+		}
+		return digest.digest(description.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void describe(Class<?> type, StringBuilder description) {
+		description.append("class ").append(type.getName());
+		annotations(type, description);
+		Method[] methods = type.getMethods();
+		Arrays.sort(methods, Comparator.comparing(Method::toGenericString));
+		for (Method method : methods) {
+			executable(method, description);
+		}
+		Constructor<?>[] constructors = type.getConstructors();
+		Arrays.sort(constructors, Comparator.comparing(Constructor::toGenericString));
+		for (Constructor<?> constructor : constructors) {
+			executable(constructor, description);
+		}
+		if (type.isEnum()) {
+			for (Field field : type.getFields()) {
+				if (field.isEnumConstant()) {
+					description.append(' ').append(field.getName());
+					annotations(field, description);
+				}
+			}
+		}
+		description.append('\n');
+	}
+
+	private static void executable(Executable executable, StringBuilder description) {
+		description.append(' ').append(executable.toGenericString());
+		annotations(executable, description);
+		for (Parameter parameter : executable.getParameters()) {
+			description.append(' ').append(parameter.getName());
+			annotations(parameter, description);
+		}
+	}
+
+	private static void annotations(AnnotatedElement element, StringBuilder description) {
+		Arrays.stream(element.getAnnotations())
+				.map(Object::toString)
+				.sorted()
+				.forEach(annotation -> description.append(' ').append(annotation));
+	}
+
+	private static Class<?> loadClass(String name, ClassLoader loader) throws ClassNotFoundException {
+		switch (name) {
+			case "boolean": return boolean.class;
+			case "byte": return byte.class;
+			case "char": return char.class;
+			case "short": return short.class;
+			case "int": return int.class;
+			case "long": return long.class;
+			case "float": return float.class;
+			case "double": return double.class;
+			default: return Class.forName(name, false, loader);
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+}
@@ -15,13 +15,74 @@
  */
 package revidels.graphql.code1st.test;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import static org.junit.jupiter.api.Assertions.*;
 
+import graphql.ExceptionWhileDataFetching;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Document;
+import graphql.schema.DataFetcher;
+import graphql.schema.FieldCoordinates;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaPrinter;
+import revdels.graphql.code1st.annotations.Backpressure;
+import revdels.graphql.code1st.annotations.GraphQLBatch;
+import revdels.graphql.code1st.annotations.GraphQLCacheable;
+import revdels.graphql.code1st.annotations.GraphQLField;
+import revdels.graphql.code1st.annotations.GraphQLInput;
 import revdels.graphql.code1st.annotations.GraphQLQuery;
+import revdels.graphql.code1st.annotations.GraphQLSubscription;
+import revdels.graphql.code1st.annotations.GraphQLType;
+import revdels.graphql.code1st.annotations.Offload;
 import revdels.graphql.code1st.api.GraphQLSchemaGenerator;
+import revdels.graphql.code1st.api.InvocationMode;
+import revdels.graphql.code1st.api.Page;
+import revdels.graphql.code1st.api.PageRequest;
+import revdels.graphql.code1st.api.Projection;
+import revdels.graphql.code1st.execution.PreparsedDocumentCache;
+import revdels.graphql.code1st.fetchers.GeneratedAccessorFactory;
+import revdels.graphql.code1st.fetchers.GenericDataFetcher;
+import revdels.graphql.code1st.fetchers.OffloadExecutors;
+import revdels.graphql.code1st.fetchers.SharedSubscriptions;
+import revdels.graphql.code1st.metrics.InMemoryMetricsRecorder;
 
 class GraphQLGeneratorTest {
 	public static class HelloController {
@@ -32,6 +93,433 @@ class GraphQLGeneratorTest {
 		}
 	}
 	
+	public static class FailingController {
+
+		@GraphQLQuery
+		public String unavailable() throws IOException {
+			throw new IOException("Service unavailable");
+		}
+	}
+
+	public static class AsyncHelloController {
+
+		@GraphQLQuery
+		public CompletableFuture<String> hello(String greet) {
+			return CompletableFuture.supplyAsync(() -> String.format("Hello %s!", greet));
+		}
+	}
+
+	public static class Greeting {
+		private String name;
+		private List<String> titles;
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public void setTitles(List<String> titles) {
+			this.titles = titles;
+		}
+	}
+
+	public static class GreetingController {
+
+		@GraphQLQuery
+		public String greet(Greeting greeting) {
+			return String.format("Hello %s %s!", String.join(" ", greeting.titles), greeting.name);
+		}
+	}
+	
+	public static class Envelope {
+		private String to;
+		private Greeting greeting;
+
+		public void setTo(String to) {
+			this.to = to;
+		}
+
+		public void setGreeting(Greeting greeting) {
+			this.greeting = greeting;
+		}
+	}
+
+	public static class EnvelopeController {
+
+		@GraphQLQuery
+		public String send(Envelope envelope) {
+			return String.format("To %s: Hello %s %s!", envelope.to, String.join(" ", envelope.greeting.titles),
+					envelope.greeting.name);
+		}
+	}
+	
+	public static class Point {
+		private final int x;
+		private final int y;
+
+		@GraphQLInput
+		public Point(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	public static class PointController {
+
+		@GraphQLQuery
+		public int sum(Point point) {
+			return point.x + point.y;
+		}
+	}
+	
+	public static class Person {
+
+		public String getName() {
+			return "Smith";
+		}
+
+		public int getAge() {
+			return 42;
+		}
+	}
+
+	public static class PersonController {
+
+		@GraphQLQuery
+		public Person person() {
+			return new Person();
+		}
+	}
+	
+	@GraphQLType(name = "Person")
+	public static class ReloadedPerson {
+
+		public String getName() {
+			return "Jones";
+		}
+	}
+
+	public static class ReloadedPersonController {
+
+		@GraphQLQuery
+		public ReloadedPerson person() {
+			return new ReloadedPerson();
+		}
+	}
+
+	public static class Customer {
+		static final AtomicInteger batchCalls = new AtomicInteger();
+		private final int id;
+
+		public Customer(int id) {
+			this.id = id;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		@GraphQLBatch
+		public static List<String> greeting(List<Customer> customers, String prefix) {
+			batchCalls.incrementAndGet();
+			return customers.stream().map(customer -> prefix + customer.id).collect(Collectors.toList());
+		}
+	}
+
+	public static class CustomerController {
+
+		@GraphQLQuery
+		public List<Customer> customers() {
+			return List.of(new Customer(1), new Customer(2), new Customer(3));
+		}
+	}
+	
+	public static class Store {
+		static final AtomicInteger batchCalls = new AtomicInteger();
+		private final int id;
+
+		public Store(int id) {
+			this.id = id;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		@GraphQLBatch
+		public static List<Integer> distance(List<Store> stores, Point origin) {
+			batchCalls.incrementAndGet();
+			return stores.stream().map(store -> store.id - origin.x - origin.y).collect(Collectors.toList());
+		}
+	}
+
+	public static class StoreController {
+
+		@GraphQLQuery
+		public List<Store> stores() {
+			return List.of(new Store(10), new Store(20), new Store(30));
+		}
+	}
+
+	public static class TickController {
+
+		@GraphQLQuery
+		public String status() {
+			return "ticking";
+		}
+
+		@GraphQLSubscription(backpressure = Backpressure.LATEST)
+		public Flow.Publisher<Integer> ticks(Integer count) {
+			return publishTicks(count);
+		}
+
+		@GraphQLSubscription(backpressure = Backpressure.BUFFER, bufferSize = 2)
+		public Flow.Publisher<Integer> bufferedTicks(Integer count) {
+			return publishTicks(count);
+		}
+
+		@GraphQLSubscription(backpressure = Backpressure.DROP_OLDEST, bufferSize = 2)
+		public Flow.Publisher<Integer> droppingTicks(Integer count) {
+			return publishTicks(count);
+		}
+
+		private static Flow.Publisher<Integer> publishTicks(int count) {
+			return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+					for (int i = 1; i <= count; i++) {
+						subscriber.onNext(i);
+					}
+					subscriber.onComplete();
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+		}
+	}
+
+	public static class QuoteController {
+		private final AtomicInteger opened = new AtomicInteger();
+		private final SubmissionPublisher<Integer> quotes = new SubmissionPublisher<>(Runnable::run, 16);
+
+		@GraphQLQuery
+		public String status() {
+			return "quoting";
+		}
+
+		@GraphQLSubscription(shared = true)
+		public Flow.Publisher<Integer> quotes(String symbol) {
+			opened.incrementAndGet();
+			return quotes;
+		}
+	}
+
+	public static class Crowd {
+
+		@GraphQLField(multiplier = "count")
+		public List<Person> people(int count) {
+			return Collections.emptyList();
+		}
+	}
+
+	public static class PeopleController {
+
+		@GraphQLQuery(cost = 2, multiplier = "count")
+		public List<Person> people(int count) {
+			List<Person> people = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				people.add(new Person());
+			}
+			return people;
+		}
+
+		@GraphQLQuery(multiplier = "count")
+		public List<Crowd> crowds(int count) {
+			return Collections.emptyList();
+		}
+	}
+
+	public static class RateController {
+		final AtomicInteger calls = new AtomicInteger();
+
+		@GraphQLQuery
+		@GraphQLCacheable(ttl = 1, unit = TimeUnit.HOURS)
+		public double rate(String currency) {
+			calls.incrementAndGet();
+			return currency.length();
+		}
+	}
+
+	public static class Team {
+
+		public String getName() {
+			return "Core";
+		}
+
+		public Person getLeader() {
+			return new Person();
+		}
+	}
+
+	public static class TeamController {
+		final AtomicInteger calls = new AtomicInteger();
+		Projection projection;
+
+		@GraphQLQuery
+		public Team team(String name, Projection projection) {
+			this.projection = projection;
+			return new Team();
+		}
+
+		@GraphQLQuery
+		@GraphQLCacheable(ttl = 1, unit = TimeUnit.HOURS)
+		public Team cachedTeam(String name, Projection projection) {
+			calls.incrementAndGet();
+			return team(name, projection);
+		}
+
+		@GraphQLQuery
+		public Page<Person> members(PageRequest request, Projection projection) {
+			this.projection = projection;
+			return Page.of(List.of(new Person()), request, person -> person.getName());
+		}
+	}
+
+	public static class CustomerPageController {
+
+		@GraphQLQuery
+		public Page<Customer> customerPage(PageRequest request) {
+			int after = request.getAfter() == null ? 0 : Integer.parseInt(request.getAfter());
+			List<Customer> customers = new ArrayList<>();
+			for (int id = after + 1; id <= 10 && customers.size() <= request.getLimit(); id++) {
+				customers.add(new Customer(id));
+			}
+			return Page.of(customers, request, customer -> String.valueOf(customer.getId()));
+		}
+	}
+
+	public static class NumberController {
+		final AtomicInteger closed = new AtomicInteger();
+
+		@GraphQLQuery
+		public Stream<Integer> numbers(int count) {
+			return IntStream.rangeClosed(1, count).boxed().onClose(closed::incrementAndGet);
+		}
+
+		@GraphQLQuery
+		public Iterator<Integer> failingClose(int count) {
+			return new ClosingIterator(count, closed);
+		}
+	}
+
+	public static class ClosingIterator implements Iterator<Integer>, AutoCloseable {
+		private final int count;
+		private final AtomicInteger closed;
+		private int next = 1;
+
+		ClosingIterator(int count, AtomicInteger closed) {
+			this.count = count;
+			this.closed = closed;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next <= count;
+		}
+
+		@Override
+		public Integer next() {
+			return next++;
+		}
+
+		@Override
+		public void close() {
+			closed.incrementAndGet();
+			throw new IllegalStateException("close failed");
+		}
+	}
+
+	public static class ThreadController {
+
+		@GraphQLQuery
+		public String plain() {
+			return Thread.currentThread().getName();
+		}
+
+		@GraphQLQuery(offload = Offload.ALWAYS)
+		public String always() {
+			return Thread.currentThread().getName();
+		}
+
+		@GraphQLQuery(offload = Offload.NEVER)
+		public String never() {
+			return Thread.currentThread().getName();
+		}
+	}
+
+	public static class CollectingSubscriber implements Subscriber<ExecutionResult> {
+		private final String field;
+		private final List<Object> values = new ArrayList<>();
+		private Subscription subscription;
+		private boolean completed;
+		private Throwable error;
+
+		public CollectingSubscriber(String field) {
+			this.field = field;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(ExecutionResult result) {
+			Map<String, Object> data = result.getData();
+			values.add(data.get(field));
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+	
+	public static class MemberSubscriber implements Subscriber<Object> {
+		private final boolean cancelOnSubscribe;
+		private Subscription subscription;
+
+		public MemberSubscriber(boolean cancelOnSubscribe) {
+			this.cancelOnSubscribe = cancelOnSubscribe;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+			if (cancelOnSubscribe) {
+				subscription.cancel();
+			}
+		}
+
+		@Override
+		public void onNext(Object item) {
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+		}
+
+		@Override
+		public void onComplete() {
+		}
+	}
+	
 	@Test
 	void helloWorldTest() {
 		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
@@ -42,6 +530,635 @@ class GraphQLGeneratorTest {
 	
 	
 	}
+
+	@Test
+	void nestedInputTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Envelope", new EnvelopeController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		// the setter handles are resolved once and reused for every instance
+		for (String name : List.of("Smith", "Jones")) {
+			ExecutionResult result = graphQL.execute("{ send(envelope: {to: \"Bob\", greeting: {name: \"" + name
+					+ "\", titles: [\"Dr\"]}}) }");
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+			Map<String, Object> data = result.getData();
+			assertEquals("To Bob: Hello Dr " + name + "!", data.get("send"));
+		}
+	}
+
+	@Test
+	void classMetadataCacheTest() throws ReflectiveOperationException {
+		Method of = Class.forName("revdels.graphql.code1st.schemagen.ClassMetadata").getDeclaredMethod("of", Class.class);
+		of.setAccessible(true);
+		Method getOutputFields = of.getReturnType().getDeclaredMethod("getOutputFields");
+		getOutputFields.setAccessible(true);
+		List<Object> outputFields = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.addController("Person", new PersonController());
+			gen.generate();
+			outputFields.add(getOutputFields.invoke(of.invoke(null, Person.class)));
+		}
+		// one introspection per class, shared by the generators
+		assertSame(of.invoke(null, Person.class), of.invoke(null, Person.class));
+		assertSame(outputFields.get(0), outputFields.get(1));
+	}
+
+	@Test
+	void checkedExceptionTest() {
+		for (InvocationMode mode : List.of(InvocationMode.METHOD_HANDLE, InvocationMode.REFLECTION)) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.setInvocationMode(mode);
+			gen.addController("Failing", new FailingController());
+			ExecutionResult result = GraphQL.newGraphQL(gen.generate()).build().execute("{ unavailable }");
+			assertEquals(1, result.getErrors().size());
+			// the exception of the controller itself, not a wrapper of it
+			Throwable exception = ((ExceptionWhileDataFetching) result.getErrors().get(0)).getException();
+			assertEquals(IOException.class, exception.getClass(), mode.toString());
+			assertEquals("Service unavailable", exception.getMessage());
+		}
+	}
+
+	@Test
+	void generatedAccessorsTest() {
+		assertNotNull(GeneratedAccessorFactory.lookup(HelloController.class));
+		String accessorsClass = GeneratedAccessorFactory.lookup(HelloController.class).getClass().getName();
+		for (InvocationMode mode : List.of(InvocationMode.METHOD_HANDLE, InvocationMode.GENERATED)) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.setInvocationMode(mode);
+			gen.addController("Hello", new HelloController());
+			GraphQLSchema schema = gen.generate();
+			DataFetcher<?> fetcher = schema.getCodeRegistry().getDataFetcher(FieldCoordinates.coordinates("Query", "hello"),
+					schema.getQueryType().getFieldDefinition("hello"));
+			// only GENERATED calls the controller through its generated accessors
+			String invokerClass = ((GenericDataFetcher) fetcher).getInvoker().getClass().getName();
+			assertEquals(mode == InvocationMode.GENERATED, invokerClass.startsWith(accessorsClass), invokerClass);
+			ExecutionResult result = GraphQL.newGraphQL(schema).build().execute("{ hello(greet: \"World\") }");
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+			Map<String, Object> data = result.getData();
+			assertEquals("Hello World!", data.get("hello"));
+		}
+	}
+
+	@Test
+	void compiledSchemaTest() {
+		SchemaPrinter printer = new SchemaPrinter(SchemaPrinter.Options.defaultOptions().includeDirectives(false));
+		String[] printed = new String[2];
+		GraphQLSchema compiled = null;
+		for (int i = 0; i < 2; i++) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.setCompiledSchema(i == 0);
+			gen.addController("Greeting", new GreetingController());
+			gen.addController("CustomerPage", new CustomerPageController());
+			gen.addController("Store", new StoreController());
+			gen.addController("Tick", new TickController());
+			GraphQLSchema schema = gen.generate();
+			// the schema the processor generated is parsed from its SDL
+			assertEquals(i == 0, schema.getQueryType().getDefinition() != null);
+			printed[i] = printer.print(schema);
+			if (i == 0) {
+				compiled = schema;
+			}
+		}
+		assertEquals(printed[1], printed[0]);
+		ExecutionResult result = GraphQL.newGraphQL(compiled).build().execute(
+				"{ greet(greeting: {name: \"Smith\", titles: [\"Dr\"]}) customerPage(first: 2) { edges { node { id } } } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Object> data = result.getData();
+		assertEquals("Hello Dr Smith!", data.get("greet"));
+	}
+
+	@Test
+	void asyncQueryTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Hello", new AsyncHelloController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("{ hello(greet: \"World\") }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Object> data = result.getData();
+		assertEquals("Hello World!", data.get("hello"));
+	}
+
+	@Test
+	void inputObjectArgumentTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Greeting", new GreetingController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("{ greet(greeting: {name: \"Smith\", titles: [\"Dr\", \"Prof\"]}) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Object> data = result.getData();
+		assertEquals("Hello Dr Prof Smith!", data.get("greet"));
+	}
+
+	@Test
+	void getterFetcherTest() {
+		for (InvocationMode mode : InvocationMode.values()) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.setInvocationMode(mode);
+			gen.addController("Person", new PersonController());
+			GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+			ExecutionResult result = graphQL.execute("{ person { name age } }");
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+			Map<String, Map<String, Object>> data = result.getData();
+			assertEquals("Smith", data.get("person").get("name"), mode.toString());
+			assertEquals(42, data.get("person").get("age"), mode.toString());
+		}
+	}
+
+	@Test
+	void batchFieldTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Customer", new CustomerController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		Customer.batchCalls.set(0);
+		ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+				.query("{ customers { id greeting(prefix: \"#\") } }")
+				.dataLoaderRegistry(gen.newDataLoaderRegistry())
+				.build());
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, List<Map<String, Object>>> data = result.getData();
+		assertEquals("#3", data.get("customers").get(2).get("greeting"));
+		assertEquals(1, Customer.batchCalls.get());
+	}
+
+	@Test
+	void batchInputArgumentTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Store", new StoreController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		Store.batchCalls.set(0);
+		ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+				.query("{ stores { id distance(origin: {x: 1, y: 2}) } }")
+				.dataLoaderRegistry(gen.newDataLoaderRegistry())
+				.build());
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, List<Map<String, Object>>> data = result.getData();
+		assertEquals(27, data.get("stores").get(2).get("distance"));
+		// Point has no equals, the keys still share one batch
+		assertEquals(1, Store.batchCalls.get());
+	}
+
+	@Test
+	void constructorInputTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Point", new PointController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("{ sum(point: {x: 3}) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Object> data = result.getData();
+		assertEquals(3, data.get("sum"));
+	}
+
+	@Test
+	void parallelGenerationTest() {
+		String[] printed = new String[2];
+		for (int i = 0; i < 2; i++) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.addController("Greeting", new GreetingController());
+			gen.addController("Person", new PersonController());
+			gen.addController("Customer", new CustomerController());
+			gen.addController("Point", new PointController());
+			GraphQLSchema schema = i == 0 ? gen.generate() : gen.generateParallel(ForkJoinPool.commonPool());
+			printed[i] = new SchemaPrinter().print(schema);
+		}
+		assertEquals(printed[0], printed[1]);
+	}
+
+	@Test
+	void queryCostTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("People", new PeopleController());
+		GraphQLSchema schema = gen.generate();
+		GraphQL graphQL = GraphQL.newGraphQL(schema).instrumentation(gen.newQueryCostInstrumentation(50)).build();
+		// (2 + 2 fields) * 5 people
+		ExecutionResult result = graphQL.execute("{ people(count: 5) { name age } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		result = graphQL.execute("{ people(count: 20) { name age } }");
+		assertFalse(result.getErrors().isEmpty());
+		assertNull(result.getData());
+		// the nested multipliers overflow a long, the cost saturates instead
+		result = graphQL.execute("{ crowds(count: 2147483647) { people(count: 2147483647) { name } } }");
+		assertFalse(result.getErrors().isEmpty());
+		assertNull(result.getData());
+	}
+
+	@Test
+	void queryCostCacheTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("People", new PeopleController());
+		GraphQLSchema schema = gen.generate();
+		GraphQL graphQL = GraphQL.newGraphQL(schema).instrumentation(gen.newQueryCostInstrumentation(50))
+				.preparsedDocumentProvider(gen.newPreparsedDocumentCache(10_000)).build();
+		String query = "query ($count: Int!) { people(count: $count) { name age } }";
+		ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput().query(query)
+				.variables(Collections.singletonMap("count", 5)));
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		// the cached document skips validation, the cost is still checked
+		result = graphQL.execute(ExecutionInput.newExecutionInput().query(query)
+				.variables(Collections.singletonMap("count", 20)));
+		assertFalse(result.getErrors().isEmpty());
+		assertNull(result.getData());
+	}
+
+	@Test
+	void metricsTest() {
+		InMemoryMetricsRecorder metrics = new InMemoryMetricsRecorder();
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.setMetricsRecorder(metrics);
+		gen.addController("Person", new PersonController());
+		gen.addController("Tick", new TickController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		for (int i = 0; i < 3; i++) {
+			ExecutionResult result = graphQL.execute("{ person { name age } }");
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		}
+		assertEquals(3, metrics.snapshotFields().get("Query.person").getCount());
+		assertEquals(3, metrics.snapshotControllers().get("Person").getCount());
+		// getters are not recorded by default
+		assertFalse(metrics.snapshotFields().containsKey("Person.name"));
+		// nor subscriptions, whose fetcher only creates the publisher
+		ExecutionResult result = graphQL.execute("subscription { ticks(count: 1) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertFalse(metrics.snapshotFields().containsKey("Subscription.ticks"));
+		assertFalse(metrics.snapshotControllers().containsKey("Tick"));
+	}
+
+	@Test
+	void persistedQueryTest() throws NoSuchAlgorithmException {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Person", new PersonController());
+		GraphQLSchema schema = gen.generate();
+		PreparsedDocumentCache cache = gen.newPreparsedDocumentCache(10_000);
+		assertSame(schema, cache.getSchema());
+		AtomicInteger parses = new AtomicInteger();
+		GraphQL graphQL = GraphQL.newGraphQL(schema).preparsedDocumentProvider(cache)
+				.instrumentation(new SimpleInstrumentation() {
+					@Override
+					public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters) {
+						parses.incrementAndGet();
+						return super.beginParse(parameters);
+					}
+				}).build();
+		String query = "{ person { name } }";
+		StringBuilder hash = new StringBuilder();
+		for (byte b : MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8))) {
+			hash.append(String.format("%02x", b));
+		}
+		Map<String, Object> extensions = Collections.singletonMap("persistedQuery",
+				Collections.singletonMap("sha256Hash", hash.toString()));
+		ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput().query("").extensions(extensions));
+		assertEquals("PersistedQueryNotFound", result.getErrors().get(0).getMessage());
+		result = graphQL.execute(ExecutionInput.newExecutionInput().query(query).extensions(extensions));
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		result = graphQL.execute(ExecutionInput.newExecutionInput().query("").extensions(extensions));
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		result = graphQL.execute(query);
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals(1, parses.get());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void resultCacheTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		RateController controller = new RateController();
+		gen.addController("Rate", controller);
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		for (int i = 0; i < 3; i++) {
+			ExecutionResult result = graphQL.execute("{ rate(currency: \"EUR\") }");
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		}
+		graphQL.execute("{ rate(currency: \"USD\") }");
+		assertEquals(2, controller.calls.get());
+		gen.getResultCache().invalidate("rate", Collections.singletonMap("currency", "EUR"));
+		assertEquals(1, gen.getResultCache().size("rate"));
+		graphQL.execute("{ rate(currency: \"EUR\") }");
+		assertEquals(3, controller.calls.get());
+	}
+
+	@Test
+	void projectionTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		TeamController controller = new TeamController();
+		gen.addController("Team", controller);
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("{ team(name: \"A\") { leader { name __typename } } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals(Set.of("leader", "leader.name"), controller.projection.getPaths());
+		assertFalse(controller.projection.contains("name"));
+		result = graphQL.execute("{ members(first: 2) { edges { cursor node { name } } pageInfo { hasNextPage } } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals(Set.of("name"), controller.projection.getPaths());
+	}
+
+	@Test
+	void cachedProjectionTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		TeamController controller = new TeamController();
+		gen.addController("Team", controller);
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("{ cachedTeam(name: \"A\") { name } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		// another selection is another entry, the result was built for its projection
+		result = graphQL.execute("{ cachedTeam(name: \"A\") { leader { name } } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals(Set.of("leader", "leader.name"), controller.projection.getPaths());
+		graphQL.execute("{ cachedTeam(name: \"A\") { name } }");
+		assertEquals(2, controller.calls.get());
+		gen.getResultCache().invalidate("cachedTeam", Collections.singletonMap("name", "A"));
+		assertEquals(0, gen.getResultCache().size("cachedTeam"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pagedQueryTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("CustomerPage", new CustomerPageController());
+		gen.setMaxPageSize(4);
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		String query = "query($after: String) { customerPage(first: 6, after: $after) { "
+				+ "edges { node { id } } pageInfo { hasNextPage hasPreviousPage endCursor } } }";
+		List<Integer> ids = new ArrayList<>();
+		Object after = null;
+		boolean hasNextPage = true;
+		while (hasNextPage) {
+			ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput(query)
+					.variables(Collections.singletonMap("after", after)).build());
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+			Map<String, Object> data = result.getData();
+			Map<String, Object> page = (Map<String, Object>) data.get("customerPage");
+			List<Map<String, Object>> edges = (List<Map<String, Object>>) page.get("edges");
+			assertTrue(edges.size() <= 4);
+			edges.forEach(edge -> ids.add((Integer) ((Map<String, Object>) edge.get("node")).get("id")));
+			Map<String, Object> pageInfo = (Map<String, Object>) page.get("pageInfo");
+			assertEquals(after != null, pageInfo.get("hasPreviousPage"));
+			hasNextPage = (Boolean) pageInfo.get("hasNextPage");
+			after = pageInfo.get("endCursor");
+		}
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), ids);
+	}
+
+	@Test
+	void streamResultTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		NumberController controller = new NumberController();
+		gen.addController("Number", controller);
+		gen.setMaxListSize(5);
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("{ numbers(count: 3) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Object> data = result.getData();
+		assertEquals(List.of(1, 2, 3), data.get("numbers"));
+		result = graphQL.execute("{ numbers(count: 1000000) }");
+		assertEquals(1, result.getErrors().size());
+		assertEquals(2, controller.closed.get());
+		// the overflow is reported, not the failure to close afterwards
+		result = graphQL.execute("{ failingClose(count: 1000000) }");
+		assertEquals(1, result.getErrors().size());
+		assertTrue(result.getErrors().get(0).getMessage().contains("maximum size"), result.getErrors().toString());
+		assertEquals(3, controller.closed.get());
+	}
+
+	@Test
+	void offloadTest() {
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "offload-test"));
+		try {
+			for (boolean offload : new boolean[] { false, true }) {
+				GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+				gen.setOffload(offload);
+				gen.setOffloadExecutor(executor);
+				gen.addController("Thread", new ThreadController());
+				GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+				ExecutionResult result = graphQL.execute("{ plain always never }");
+				assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+				Map<String, Object> data = result.getData();
+				assertEquals(offload, "offload-test".equals(data.get("plain")));
+				assertEquals("offload-test", data.get("always"));
+				assertNotEquals("offload-test", data.get("never"));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void offloadQueueBoundTest() throws InterruptedException {
+		ExecutorService executor = OffloadExecutors.newPlatformExecutor(1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> {
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			executor.execute(() -> {});
+			assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void lazyGenerationTest() {
+		String[] printed = new String[2];
+		for (int i = 0; i < 2; i++) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.setLazyDepth(i == 0 ? -1 : 0);
+			gen.addController("Person", new PersonController());
+			gen.addController("Point", new PointController());
+			gen.addController("Customer", new CustomerController());
+			printed[i] = new SchemaPrinter().print(gen.generate());
+		}
+		assertEquals(printed[0], printed[1]);
+	}
+
+	@Test
+	void incrementalGenerationTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Person", new PersonController());
+		gen.addController("Point", new PointController());
+		GraphQLSchema first = gen.generate();
+		gen.removeController("Person");
+		gen.addController("Hello", new HelloController());
+		GraphQLSchema second = gen.generate();
+		assertNull(second.getType("Person"));
+		assertNull(second.getQueryType().getFieldDefinition("person"));
+		ExecutionResult result = GraphQL.newGraphQL(second).build().execute("{ hello(greet: \"you\") sum(point: {x: 1, y: 2}) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		// the first schema is left as it was
+		result = GraphQL.newGraphQL(first).build().execute("{ person { name } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+	}
+
+	@Test
+	void replaceControllerTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Person", new PersonController());
+		gen.addController("Point", new PointController());
+		gen.generate();
+		// a reloaded controller brings another class for the Person type
+		gen.addController("Person", new ReloadedPersonController());
+		GraphQLSchema schema = gen.generate();
+		ExecutionResult result = GraphQL.newGraphQL(schema).build().execute("{ person { name } sum(point: {x: 1, y: 2}) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Map<String, Object>> data = result.getData();
+		assertEquals("Jones", data.get("person").get("name"));
+	}
+
+	@Test
+	void snapshotTest() throws IOException {
+		Path snapshot = Files.createTempDirectory("graphql-code1st").resolve("schema.snapshot");
+		FileTime written = FileTime.fromMillis(0);
+		for (int i = 0; i < 2; i++) {
+			GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+			gen.setSnapshot(snapshot);
+			gen.addController("Greeting", new GreetingController());
+			GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+			assertTrue(Files.exists(snapshot));
+			// a warm start reads the snapshot without rewriting it
+			assertEquals(i == 1, Files.getLastModifiedTime(snapshot).equals(written));
+			Files.setLastModifiedTime(snapshot, written);
+			ExecutionResult result = graphQL.execute("{ greet(greeting: {name: \"Smith\", titles: [\"Dr\"]}) }");
+			assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+			Map<String, Object> data = result.getData();
+			assertEquals("Hello Dr Smith!", data.get("greet"));
+		}
+		// another controller class changes the fingerprint: the stale snapshot is regenerated
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.setSnapshot(snapshot);
+		gen.setCompiledSchema(true);
+		gen.addController("Greeting", new HelloController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		assertNotEquals(written, Files.getLastModifiedTime(snapshot));
+		ExecutionResult result = graphQL.execute("{ hello(greet: \"World\") }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Map<String, Object> data = result.getData();
+		assertEquals("Hello World!", data.get("hello"));
+		// a later generation with a snapshot set introspects and rewrites it again
+		Files.setLastModifiedTime(snapshot, written);
+		gen.addController("Person", new PersonController());
+		graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		assertNotEquals(written, Files.getLastModifiedTime(snapshot));
+		result = graphQL.execute("{ hello(greet: \"World\") person { name } }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+	}
+
+	@Test
+	void latestSubscriptionTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Tick", new TickController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		ExecutionResult result = graphQL.execute("subscription { ticks(count: 5) }");
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		Publisher<ExecutionResult> publisher = result.getData();
+		CollectingSubscriber subscriber = new CollectingSubscriber("ticks");
+		publisher.subscribe(subscriber);
+		// the upstream has completed before any demand, only the latest tick survives
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(List.of(5), subscriber.values);
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	void bufferSubscriptionTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Tick", new TickController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		Publisher<ExecutionResult> publisher = graphQL.execute("subscription { bufferedTicks(count: 5) }").getData();
+		CollectingSubscriber subscriber = new CollectingSubscriber("bufferedTicks");
+		publisher.subscribe(subscriber);
+		// the third undelivered tick overflows the buffer of two
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(List.of(), subscriber.values);
+		assertNotNull(subscriber.error);
+		assertFalse(subscriber.completed);
+	}
+
+	@Test
+	void dropOldestSubscriptionTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		gen.addController("Tick", new TickController());
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		Publisher<ExecutionResult> publisher = graphQL.execute("subscription { droppingTicks(count: 5) }").getData();
+		CollectingSubscriber subscriber = new CollectingSubscriber("droppingTicks");
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(List.of(4, 5), subscriber.values);
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	void sharedSubscriptionTest() {
+		GraphQLSchemaGenerator gen = GraphQLSchemaGenerator.newGraphQLSchemaGenerator();
+		QuoteController controller = new QuoteController();
+		gen.addController("Quote", controller);
+		GraphQL graphQL = GraphQL.newGraphQL(gen.generate()).build();
+		List<CollectingSubscriber> subscribers = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			Publisher<ExecutionResult> publisher = graphQL.execute("subscription { quotes(symbol: \"A\") }").getData();
+			CollectingSubscriber subscriber = new CollectingSubscriber("quotes");
+			publisher.subscribe(subscriber);
+			subscriber.subscription.request(Long.MAX_VALUE);
+			subscribers.add(subscriber);
+		}
+		assertEquals(1, controller.opened.get());
+		controller.quotes.submit(7);
+		controller.quotes.close();
+		for (CollectingSubscriber subscriber : subscribers) {
+			assertEquals(List.of(7), subscriber.values);
+			assertTrue(subscriber.completed);
+		}
+	}
+
+	@Test
+	void sharedSubscriptionReleaseTest() {
+		SharedSubscriptions registry = new SharedSubscriptions();
+		AtomicInteger opened = new AtomicInteger();
+		AtomicInteger cancelled = new AtomicInteger();
+		Callable<Publisher<Object>> source = () -> {
+			opened.incrementAndGet();
+			return subscriber -> subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+					cancelled.incrementAndGet();
+				}
+			});
+		};
+		Publisher<Object> publisher = registry.publisher("Subscription.quotes", Collections.singletonMap("symbol", "A"),
+				source, Backpressure.BUFFER, 16);
+		MemberSubscriber first = new MemberSubscriber(false);
+		MemberSubscriber second = new MemberSubscriber(false);
+		publisher.subscribe(first);
+		publisher.subscribe(second);
+		assertEquals(1, opened.get());
+		assertEquals(1, registry.size());
+		first.subscription.cancel();
+		assertEquals(0, cancelled.get());
+		assertEquals(1, registry.size());
+		// the last member leaving cancels the upstream
+		second.subscription.cancel();
+		assertEquals(1, cancelled.get());
+		assertEquals(0, registry.size());
+		publisher.subscribe(new MemberSubscriber(false));
+		assertEquals(2, opened.get());
+		assertEquals(1, registry.size());
+		// a member cancelled before it joined leaves when joining
+		registry.publisher("Subscription.quotes", Collections.singletonMap("symbol", "B"), source, Backpressure.BUFFER, 16)
+				.subscribe(new MemberSubscriber(true));
+		assertEquals(3, opened.get());
+		assertEquals(2, cancelled.get());
+		assertEquals(1, registry.size());
+	}
 	
 	
 	